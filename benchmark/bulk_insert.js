@@ -0,0 +1,58 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const BATCH_SIZE = parseInt(__ENV.BATCH_SIZE || '500');
+
+const bookingsCreated = new Counter('bookings_created');
+
+export const options = {
+    scenarios: {
+        writers: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '10'),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    setupTimeout: '1m',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function params(userId) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (userId !== undefined) {
+        headers['X-Sharer-User-Id'] = String(userId);
+    }
+    return { headers, timeout: '60s' };
+}
+
+function localDateTime(daysFromNow) {
+    return new Date(Date.now() + daysFromNow * 24 * 60 * 60 * 1000).toISOString().slice(0, 19);
+}
+
+export function setup() {
+    const suffix = Date.now();
+
+    const owner = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: 'Owner', email: `owner${suffix}@ya.ru` }), params()).json();
+    const booker = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: 'Booker', email: `booker${suffix}@ya.ru` }), params()).json();
+    const item = http.post(`${BASE_URL}/items`,
+        JSON.stringify({ name: 'Balalaika', description: 'Brand new balalaika', available: true }), params(owner.id)).json();
+
+    return { bookerId: booker.id, itemId: item.id };
+}
+
+export default function (data) {
+    const bookings = [];
+    for (let i = 0; i < BATCH_SIZE; i++) {
+        bookings.push({ itemId: data.itemId, start: localDateTime(i + 1), end: localDateTime(i + 2) });
+    }
+
+    const response = http.post(`${BASE_URL}/bookings/bulk`, JSON.stringify(bookings), params(data.bookerId));
+
+    if (check(response, { 'status is 200': (r) => r.status === 200 })) {
+        bookingsCreated.add(response.json().filter((result) => result.status === 200).length);
+    }
+}
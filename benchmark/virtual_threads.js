@@ -0,0 +1,53 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        readers: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '5000'),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    setupTimeout: '1m',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function params(userId) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (userId !== undefined) {
+        headers['X-Sharer-User-Id'] = String(userId);
+    }
+    return { headers };
+}
+
+function localDateTime(daysFromNow) {
+    return new Date(Date.now() + daysFromNow * 24 * 60 * 60 * 1000).toISOString().slice(0, 19);
+}
+
+export function setup() {
+    const suffix = Date.now();
+
+    const owner = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: 'Owner', email: `owner${suffix}@ya.ru` }), params()).json();
+    const booker = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: 'Booker', email: `booker${suffix}@ya.ru` }), params()).json();
+    const item = http.post(`${BASE_URL}/items`,
+        JSON.stringify({ name: 'Balalaika', description: 'Brand new balalaika', available: true }), params(owner.id)).json();
+    const booking = http.post(`${BASE_URL}/bookings`,
+        JSON.stringify({ itemId: item.id, start: localDateTime(1), end: localDateTime(2) }), params(booker.id)).json();
+
+    return { ownerId: owner.id, bookerId: booker.id, itemId: item.id, bookingId: booking.id };
+}
+
+export default function (data) {
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/items/${data.itemId}`, null, params(data.ownerId)],
+        ['GET', `${BASE_URL}/bookings/${data.bookingId}`, null, params(data.bookerId)],
+        ['GET', `${BASE_URL}/bookings/owner?state=ALL`, null, params(data.ownerId)],
+    ]);
+
+    responses.forEach((response) => check(response, { 'status is 200': (r) => r.status === 200 }));
+}
@@ -4,56 +4,80 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSearchMode;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         WebClient.Builder webClientBuilder,
+                         ClientHttpRequestFactory requestFactory,
+                         GatewayResponseCache responseCache, @Value("${shareit-gateway.cache.bookings.ttl:0s}") Duration cacheTtl) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder.baseUrl(serverUrl + API_PREFIX).build(),
+                responseCache.route("bookings", cacheTtl, "bookings", "items")
         );
     }
 
-    public ResponseEntity<Object> getAll(int userId, BookingSearchMode state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getAll(int userId, BookingSearchMode state, Integer from, Integer size, String cursor, String ifNoneMatch) {
+        return get(withCursor("?state={state}&from={from}&size={size}", cursor), userId, parameters(state, from, size, cursor), ifNoneMatch);
     }
 
-    public ResponseEntity<Object> add(int userId, BookingDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(int userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> get(int userId, Integer bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> addAll(int userId, List<BookingDto> requestDtos) {
+        return post("/bulk", userId, requestDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(int userId, Integer bookingId, String ifNoneMatch) {
+        return get("/" + bookingId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> setApprove(Integer bookingId, Integer ownerId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> setApprove(Integer bookingId, Integer ownerId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, ownerId, null);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Integer userId, BookingSearchMode state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> setApproveAll(Integer ownerId, List<Integer> bookingIds, boolean approved) {
+        return patch("/bulk?approved=" + approved, ownerId, bookingIds);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(Integer userId, BookingSearchMode state, Integer from, Integer size, String cursor, String ifNoneMatch) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", cursor), userId, parameters(state, from, size, cursor), ifNoneMatch);
+    }
+
+    private static String withCursor(String path, String cursor) {
+        return cursor == null ? path : path + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> parameters(BookingSearchMode state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
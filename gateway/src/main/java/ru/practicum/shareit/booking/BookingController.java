@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -11,9 +12,13 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSearchMode;
 import ru.practicum.shareit.exceptions.IllegalSearchModeException;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -24,10 +29,12 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                          @RequestParam(name = "state", defaultValue = "ALL") String searchMode,
                                          @RequestParam(name = "from", required = false) Integer from,
-                                         @RequestParam(name = "size", required = false) Integer size) {
+                                         @RequestParam(name = "size", required = false) Integer size,
+                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         if ((from != null && from <= 0) || (size != null && size <= 0)) {
             throw new IllegalArgumentException("Failed to process request. Incorrect pagination parameters.");
@@ -49,13 +56,13 @@ public class BookingController {
             throw new IllegalSearchModeException("Unknown state: " + searchMode);
         }
 
-        log.info("Get booking with searchMode={}, userId={}, from={}, size={}", searchMode, userId, from, size);
+        log.info("Get booking with searchMode={}, userId={}, from={}, size={}, cursor={}", searchMode, userId, from, size, cursor);
 
-        return bookingClient.getAll(userId, bookingSearchMode, from, size);
+        return bookingClient.getAll(userId, bookingSearchMode, from, size, cursor, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                       @RequestBody @Valid BookingDto requestDto) {
 
         log.info("Creating booking {}, userId={}", requestDto, userId);
@@ -63,17 +70,27 @@ public class BookingController {
         return bookingClient.add(userId, requestDto);
     }
 
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<Object>> addAll(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                            @RequestBody @NotEmpty @Size(max = 1000) List<BookingDto> requestDtos) {
+
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+
+        return bookingClient.addAll(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                      @PathVariable Integer bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                      @PathVariable Integer bookingId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Get bookingId={}, userId={}", bookingId, userId);
 
-        return bookingClient.get(userId, bookingId);
+        return bookingClient.get(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> setApprove(@PathVariable Integer bookingId,
+    public CompletableFuture<ResponseEntity<Object>> setApprove(@PathVariable Integer bookingId,
                                              @RequestHeader("X-Sharer-User-Id") @NotNull Integer ownerId,
                                              @RequestParam("approved") @NotNull Boolean approved) {
 
@@ -82,11 +99,23 @@ public class BookingController {
         return bookingClient.setApprove(bookingId, ownerId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public CompletableFuture<ResponseEntity<Object>> setApproveAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer ownerId,
+                                                                   @RequestParam("approved") @NotNull Boolean approved,
+                                                                   @RequestBody List<Integer> bookingIds) {
+
+        log.info("Set approve for {} bookings, userId={}, approved={}", bookingIds.size(), ownerId, approved);
+
+        return bookingClient.setApproveAll(ownerId, bookingIds, approved);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
                                                 @RequestParam(name = "from", required = false) @Positive Integer from,
                                                 @RequestParam(name = "size", required = false) @Positive Integer size,
-                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+                                                @RequestParam(name = "cursor", required = false) String cursor,
+                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         if (from == null) {
             from = 0;
@@ -104,8 +133,8 @@ public class BookingController {
             throw new IllegalSearchModeException("Unknown state: " + searchMode);
         }
 
-        log.info("Get all bookings by userId={}, searchMode={}, from={}, size={}", userId, searchMode, from, size);
+        log.info("Get all bookings by userId={}, searchMode={}, from={}, size={}, cursor={}", userId, searchMode, from, size, cursor);
 
-        return bookingClient.getAllByOwner(userId, bookingSearchMode, from, size);
+        return bookingClient.getAllByOwner(userId, bookingSearchMode, from, size, cursor, ifNoneMatch);
     }
 }
@@ -1,110 +1,216 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
-import org.springframework.http.HttpEntity;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
     protected final RestTemplate rest;
+    protected final WebClient webClient;
+    private final GatewayResponseCache.Route cacheRoute;
+    private final Map<InFlightKey, CompletableFuture<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, WebClient webClient) {
+        this(rest, webClient, null);
+    }
+
+    public BaseClient(RestTemplate rest, WebClient webClient, @Nullable GatewayResponseCache.Route cacheRoute) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.cacheRoute = cacheRoute;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable String ifNoneMatch) {
+        URI uri = parameters != null ? rest.getUriTemplateHandler().expand(path, parameters) : rest.getUriTemplateHandler().expand(path);
+        Supplier<CompletableFuture<ResponseEntity<Object>>> call = () -> coalesce(new InFlightKey(userId, uri, ifNoneMatch),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch));
+
+        // A conditional GET must reach the server, which answers 304 or a fresh body.
+        if (cacheRoute == null || !cacheRoute.isCached() || ifNoneMatch != null) {
+            return call.get();
+        }
+
+        return cacheRoute.get(userId, uri, call);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, int userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, int userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Integer userId, Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ClientHttpResponse response = null;
+        ResponseEntity.BodyBuilder responseBuilder;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId, null));
+            response = request.execute();
+            responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null) {
+            responseBuilder.contentType(contentType);
+        }
+
+        ClientHttpResponse shareitServerResponse = response;
+        return responseBuilder.body(outputStream -> {
+            try (shareitServerResponse) {
+                StreamUtils.copy(shareitServerResponse.getBody(), outputStream);
+            }
+        });
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> coalesce(InFlightKey key, Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        CompletableFuture<ResponseEntity<Object>> leader = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> inFlight = inFlightGets.putIfAbsent(key, leader);
+        if (inFlight != null) {
+            return inFlight.copy();
+        }
+
+        try {
+            call.get().whenComplete((response, error) -> {
+                inFlightGets.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightGets.remove(key, leader);
+            leader.completeExceptionally(e);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return leader.copy();
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec requestSpec = parameters != null
+                ? webClient.method(method).uri(path, parameters)
+                : webClient.method(method).uri(path);
+        requestSpec.headers(headers -> headers.addAll(defaultHeaders(userId, ifNoneMatch)));
+
+        WebClient.RequestHeadersSpec<?> request = body != null ? requestSpec.bodyValue(body) : requestSpec;
+
+        return request.exchangeToMono(BaseClient::toGatewayResponse)
+                .doOnTerminate(() -> {
+                    if (method != HttpMethod.GET) {
+                        inFlightGets.clear();
+                        if (cacheRoute != null) {
+                            cacheRoute.evictInvalidated();
+                        }
+                    }
+                })
+                .toFuture();
     }
 
-    private HttpHeaders defaultHeaders(Integer userId) {
+    private HttpHeaders defaultHeaders(Integer userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
+    private static Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        if (response.statusCode().isError()) {
+            return response.bodyToMono(byte[].class)
+                    .map(body -> ResponseEntity.status(response.rawStatusCode()).<Object>body(body))
+                    .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
+        }
+
+        return response.toEntity(Object.class).map(BaseClient::prepareGatewayResponse);
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -112,10 +218,22 @@ public class BaseClient {
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return responseBuilder.eTag(response.getHeaders().getETag()).build();
+        }
+
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
         }
 
         return responseBuilder.build();
     }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class InFlightKey {
+        private final Integer userId;
+        private final URI uri;
+        private final String ifNoneMatch;
+    }
 }
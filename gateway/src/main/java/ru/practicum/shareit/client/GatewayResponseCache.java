@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class GatewayResponseCache {
+    private final Cache<Key, Entry> responses;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public GatewayResponseCache(@Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Route route(String name, Duration ttl, String... invalidatedRoutes) {
+        return new Route(name, ttl, Set.of(invalidatedRoutes));
+    }
+
+    public void evict(Set<String> routes) {
+        routes.forEach(route -> generation(route).incrementAndGet());
+        responses.asMap().keySet().removeIf(key -> routes.contains(key.route));
+    }
+
+    private AtomicLong generation(String route) {
+        return generations.computeIfAbsent(route, key -> new AtomicLong());
+    }
+
+    @AllArgsConstructor
+    public class Route {
+        private final String name;
+        private final Duration ttl;
+        private final Set<String> invalidatedRoutes;
+
+        public boolean isCached() {
+            return !ttl.isZero() && !ttl.isNegative();
+        }
+
+        public CompletableFuture<ResponseEntity<Object>> get(Integer userId, URI uri, Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+            Key key = new Key(name, userId, uri);
+            Entry entry = responses.getIfPresent(key);
+            if (entry != null) {
+                return CompletableFuture.completedFuture(entry.getResponse());
+            }
+
+            AtomicLong generation = generation(name);
+            long loadGeneration = generation.get();
+            return loader.get().thenApply(response -> {
+                if (response.getStatusCode() == HttpStatus.OK && response.hasBody()) {
+                    // A write that finished while this load was in flight may have made the response stale.
+                    Entry loaded = new Entry(response, ttl);
+                    responses.put(key, loaded);
+                    if (generation.get() != loadGeneration) {
+                        responses.asMap().remove(key, loaded);
+                    }
+                }
+                return response;
+            });
+        }
+
+        public void evictInvalidated() {
+            evict(invalidatedRoutes);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final Duration ttl;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final String route;
+        private final Integer userId;
+        private final URI uri;
+    }
+}
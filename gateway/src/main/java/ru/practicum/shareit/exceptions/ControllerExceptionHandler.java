@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
 import java.util.Map;
 
 @Generated
@@ -20,4 +21,11 @@ public class ControllerExceptionHandler {
         log.error(exception.getMessage());
         return Map.of("error", exception.getMessage());
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public Map<String, String> constraintViolationException(ConstraintViolationException exception) {
+        log.error(exception.getMessage());
+        return Map.of("error", exception.getMessage());
+    }
 }
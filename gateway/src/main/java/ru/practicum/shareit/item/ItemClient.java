@@ -4,54 +4,81 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      WebClient.Builder webClientBuilder,
+                      ClientHttpRequestFactory requestFactory,
+                      GatewayResponseCache responseCache, @Value("${shareit-gateway.cache.items.ttl:0s}") Duration cacheTtl) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder.baseUrl(serverUrl + API_PREFIX).build(),
+                responseCache.route("items", cacheTtl, "items", "bookings", "requests")
         );
     }
 
-    public ResponseEntity<Object> add(ItemDtoWithRequestId itemDto, Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> add(ItemDtoWithRequestId itemDto, Integer userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(ItemDto itemDto, Integer itemId, Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> update(ItemDto itemDto, Integer itemId, Integer userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> get(Integer itemId, Integer userId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> get(Integer itemId, Integer userId, String ifNoneMatch) {
+        return get("/" + itemId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAll(Integer userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<Object>> getAll(Integer userId, String ifNoneMatch) {
+        return get("", userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> search(Integer userId, String text) {
-        Map<String, Object> parameters = Map.of(
-                "text", text
-        );
-        return get("/search?text={text}", userId, parameters);
+    public ResponseEntity<StreamingResponseBody> search(Integer userId, String text, Integer from, Integer size, Integer after) {
+        StringBuilder path = new StringBuilder("/search?text={text}");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+
+        if (from != null) {
+            path.append("&from={from}");
+            parameters.put("from", from);
+        }
+
+        if (size != null) {
+            path.append("&size={size}");
+            parameters.put("size", size);
+        }
+
+        if (after != null) {
+            path.append("&after={after}");
+            parameters.put("after", after);
+        }
+
+        return stream(path.toString(), userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Integer itemId, Integer userId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Integer itemId, Integer userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
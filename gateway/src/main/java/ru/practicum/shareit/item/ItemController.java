@@ -2,14 +2,17 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
@@ -24,7 +27,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
                                       @RequestBody @Valid ItemDtoWithRequestId itemDto) {
 
         log.info("Add item with userId={}, itemDto={}", userId, itemDto);
@@ -33,7 +36,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@PathVariable @Positive Integer itemId,
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable @Positive Integer itemId,
                                          @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
                                          @RequestBody ItemDto itemDto) {
 
@@ -43,33 +46,42 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@PathVariable @NotNull @Positive Integer itemId,
-                                      @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@PathVariable @NotNull @Positive Integer itemId,
+                                      @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Get item with itemId={}, userId={}", itemId, userId);
 
-        return itemClient.get(itemId, userId);
+        return itemClient.get(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Get all items by userId={}", userId);
 
-        return itemClient.getAll(userId);
+        return itemClient.getAll(userId, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
-                                         @RequestParam("text") String text) {
+    public ResponseEntity<StreamingResponseBody> search(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                        @RequestParam("text") String text,
+                                                        @RequestParam(name = "from", required = false) Integer from,
+                                                        @RequestParam(name = "size", required = false) Integer size,
+                                                        @RequestParam(name = "after", required = false) Integer after) {
 
-        log.info("Search items by userId={}, text={}", userId, text);
+        if ((from != null && from < 0) || (size != null && size <= 0) || (after != null && after < 0)) {
+            throw new IllegalArgumentException("Failed to process request. Incorrect pagination parameters.");
+        }
 
-        return itemClient.search(userId, text);
+        log.info("Search items by userId={}, text={}, from={}, size={}, after={}", userId, text, from, size, after);
+
+        return itemClient.search(userId, text, from, size, after);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable @NotNull Integer itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@PathVariable @NotNull Integer itemId,
                                              @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
                                              @RequestBody @Valid CommentDto comment) {
         return itemClient.addComment(itemId, userId, comment);
@@ -4,39 +4,69 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         WebClient.Builder webClientBuilder,
+                         ClientHttpRequestFactory requestFactory,
+                         GatewayResponseCache responseCache, @Value("${shareit-gateway.cache.requests.ttl:0s}") Duration cacheTtl) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder.baseUrl(serverUrl + API_PREFIX).build(),
+                responseCache.route("requests", cacheTtl, "requests", "items")
         );
     }
 
-    public ResponseEntity<Object> add(Integer userId, RequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(Integer userId, RequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> get(Integer userId, Integer requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> get(Integer userId, Integer requestId, String ifNoneMatch) {
+        return get("/" + requestId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getByUser(Integer userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<Object>> getByUser(Integer userId, String ifNoneMatch) {
+        return get("", userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAll(Integer userId, Integer from, Integer size) {
-        return get("/all", userId);
+    public CompletableFuture<ResponseEntity<Object>> getAll(Integer userId, Integer from, Integer size, String cursor, String ifNoneMatch) {
+        StringBuilder path = new StringBuilder("/all?");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (from != null) {
+            path.append("from={from}&");
+            parameters.put("from", from);
+        }
+
+        if (size != null) {
+            path.append("size={size}&");
+            parameters.put("size", size);
+        }
+
+        if (cursor != null) {
+            path.append("cursor={cursor}&");
+            parameters.put("cursor", cursor);
+        }
+
+        return get(path.substring(0, path.length() - 1), userId, parameters, ifNoneMatch);
     }
 }
@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.RequestDto;
 
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
@@ -22,7 +24,7 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
                                       @Valid @RequestBody RequestDto requestDto) {
 
         log.info("Add request with userId={}, requestDto={}", userId, requestDto);
@@ -31,35 +33,37 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByUser(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> getByUser(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Get requests by userId={}", userId);
 
-        return requestClient.getByUser(userId);
+        return requestClient.getByUser(userId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestParam(name = "from", required = false) Integer from,
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestParam(name = "from", required = false) Integer from,
                                          @RequestParam(name = "size", required = false) Integer size,
-                                         @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                         @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        if (from != null && size != null) {
-            if (size <= 0 || from < 0) {
-                throw new RuntimeException("Incorrect 'from' and 'size' pagination parameter values.");
-            }
+        if ((from != null && from < 0) || (size != null && size <= 0)) {
+            throw new RuntimeException("Incorrect 'from' and 'size' pagination parameter values.");
         }
 
-        log.info("Get all requests by userId={}, from={}, size={}", userId, from, size);
+        log.info("Get all requests by userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
 
-        return requestClient.getAll(userId, from, size);
+        return requestClient.getAll(userId, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> get(@PathVariable @NotNull @Positive Integer requestId,
-                                      @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@PathVariable @NotNull @Positive Integer requestId,
+                                      @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("Get request by requestId={}, userId={}", requestId, userId);
 
-        return requestClient.get(userId, requestId);
+        return requestClient.get(userId, requestId, ifNoneMatch);
     }
 }
@@ -4,43 +4,53 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      WebClient.Builder webClientBuilder,
+                      ClientHttpRequestFactory requestFactory,
+                      GatewayResponseCache responseCache, @Value("${shareit-gateway.cache.users.ttl:0s}") Duration cacheTtl) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder.baseUrl(serverUrl + API_PREFIX).build(),
+                responseCache.route("users", cacheTtl, "users", "items", "bookings", "requests")
         );
     }
 
-    public ResponseEntity<Object> add(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> get(int userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(int userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> delete(int userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(int userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> update(UserDto userDto, int userId) {
+    public CompletableFuture<ResponseEntity<Object>> update(UserDto userDto, int userId) {
         return patch("/" + userId, userDto);
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 
@@ -21,7 +22,7 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestBody @Valid UserDto userDto) {
 
         log.info("Add user with userDto={}", userDto);
 
@@ -29,7 +30,7 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable @Positive int userId,
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable @Positive int userId,
                                          @RequestBody @Valid UserDto userDto) {
 
         log.info("Update user with userId={}, userDto={}", userId, userDto);
@@ -38,7 +39,7 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable @Positive int userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@PathVariable @Positive int userId) {
 
         log.info("Get user by userId={}", userId);
 
@@ -46,7 +47,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable @Positive int userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable @Positive int userId) {
 
         log.info("Delete user by userId={}", userId);
 
@@ -54,7 +55,7 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
 
         log.info("Get all users");
 
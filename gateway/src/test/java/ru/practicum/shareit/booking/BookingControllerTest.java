@@ -10,14 +10,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSearchMode;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -47,13 +52,17 @@ public class BookingControllerTest {
         String bookingJson = objectMapper.writeValueAsString(bookingDto);
         ResponseEntity<Object> response = new ResponseEntity<>(bookingJson, HttpStatus.OK);
 
-        when(bookingClient.add(anyInt(), any())).thenReturn(response);
+        when(bookingClient.add(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(post("/bookings")
+        MvcResult mvcResult = mockMvc.perform(post("/bookings")
                         .content(objectMapper.writeValueAsString(bookingDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -64,6 +73,81 @@ public class BookingControllerTest {
         verify(bookingClient).add(anyInt(), any());
     }
 
+    @Test
+    void addAll_shouldForwardBookingsToServer() throws Exception {
+        String resultsJson = "[{\"index\":0,\"status\":200}]";
+        ResponseEntity<Object> response = new ResponseEntity<>(resultsJson, HttpStatus.OK);
+
+        when(bookingClient.addAll(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(response));
+
+        MvcResult mvcResult = mockMvc.perform(post("/bookings/bulk")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(resultsJson, content);
+
+        verify(bookingClient).addAll(eq(1), argThat(bookings -> bookings.size() == 1));
+    }
+
+    @Test
+    void addAll_shouldForwardInvalidBookingsForPerEntryResults() throws Exception {
+        BookingDto pastBooking = new BookingDto(1, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        String resultsJson = "[{\"index\":0,\"status\":200},{\"index\":1,\"status\":400}]";
+        ResponseEntity<Object> response = new ResponseEntity<>(resultsJson, HttpStatus.OK);
+
+        when(bookingClient.addAll(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(response));
+
+        MvcResult mvcResult = mockMvc.perform(post("/bookings/bulk")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDto, pastBooking)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(resultsJson, content);
+
+        verify(bookingClient).addAll(eq(1), argThat(bookings -> bookings.size() == 2));
+    }
+
+    @Test
+    void addAll_shouldReturnBadRequest_whenNoBookings() throws Exception {
+        mockMvc.perform(post("/bookings/bulk")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).addAll(anyInt(), any());
+    }
+
+    @Test
+    void addAll_shouldReturnBadRequest_whenTooManyBookings() throws Exception {
+        mockMvc.perform(post("/bookings/bulk")
+                        .content(objectMapper.writeValueAsString(Collections.nCopies(1001, bookingDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).addAll(anyInt(), any());
+    }
+
     @Test
     void setApprove_shouldReturnStatusOk() throws Exception {
         mockMvc.perform(patch("/bookings/{bookingId}?approved={approved}", 1, true)
@@ -73,13 +157,24 @@ public class BookingControllerTest {
         verify(bookingClient).setApprove(1, 1, true);
     }
 
+    @Test
+    void setApproveAll_shouldForwardBookingIdsToServer() throws Exception {
+        mockMvc.perform(patch("/bookings/bulk?approved={approved}", false)
+                        .content(objectMapper.writeValueAsString(List.of(1, 2)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).setApproveAll(1, List.of(1, 2), false);
+    }
+
     @Test
     void get_shouldReturnStatusOk() throws Exception {
         mockMvc.perform(get("/bookings/{bookingId}", 1)
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).get(1, 1);
+        verify(bookingClient).get(1, 1, null);
     }
 
     @Test
@@ -88,7 +183,7 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getAll(1, BookingSearchMode.ALL, 1, 1);
+        verify(bookingClient).getAll(1, BookingSearchMode.ALL, 1, 1, null, null);
     }
 
     @Test
@@ -97,6 +192,6 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getAllByOwner(1, BookingSearchMode.ALL, 1, 1);
+        verify(bookingClient).getAllByOwner(1, BookingSearchMode.ALL, 1, 1, null, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseClientTest {
+
+    private static final String SERVER_URL = "http://localhost:9090/items";
+
+    private AtomicInteger calls;
+
+    private CompletableFuture<Void> serverResponse;
+
+    private TestClient client;
+
+    private TestClient cachedClient;
+
+    @BeforeEach
+    void setup() {
+        calls = new AtomicInteger();
+        serverResponse = new CompletableFuture<>();
+
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        WebClient webClient = WebClient.builder()
+                .baseUrl(SERVER_URL)
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    if (request.method() != HttpMethod.GET) {
+                        return Mono.fromSupplier(BaseClientTest::ok);
+                    }
+                    return Mono.fromFuture(serverResponse).then(Mono.fromSupplier(BaseClientTest::ok));
+                })
+                .build();
+
+        client = new TestClient(rest, webClient, null);
+        cachedClient = new TestClient(rest, webClient,
+                new GatewayResponseCache(100).route("items", Duration.ofMinutes(1), "items"));
+    }
+
+    @Test
+    void get_shouldShareOneServerCall_whenIdenticalRequestsAreInFlight() {
+        CompletableFuture<ResponseEntity<Object>> first = client.get(1, 1);
+        CompletableFuture<ResponseEntity<Object>> second = client.get(1, 1);
+
+        serverResponse.complete(null);
+
+        assertEquals(HttpStatus.OK, first.join().getStatusCode());
+        assertEquals(HttpStatus.OK, second.join().getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_shouldNotShareServerCall_whenUsersDiffer() {
+        client.get(1, 1);
+        client.get(1, 2);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_shouldCallServerAgain_whenPreviousCallHasCompleted() {
+        serverResponse.complete(null);
+
+        client.get(1, 1).join();
+        client.get(1, 1).join();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_shouldNotJoinCallStartedBeforeWrite() {
+        client.get(1, 1);
+        client.update(1, 1).join();
+        client.get(1, 1);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void get_shouldCacheGetsWithoutUser() {
+        serverResponse.complete(null);
+
+        cachedClient.get(1, null).join();
+        cachedClient.get(1, null).join();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_shouldBypassCache_whenIfNoneMatchIsPresent() {
+        serverResponse.complete(null);
+
+        cachedClient.get(1, 1).join();
+        cachedClient.get(1, 1, "\"etag\"").join();
+
+        assertEquals(2, calls.get());
+    }
+
+    private static ClientResponse ok() {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":1}")
+                .build();
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest, WebClient webClient, GatewayResponseCache.Route cacheRoute) {
+            super(rest, webClient, cacheRoute);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> get(Integer itemId, Integer userId) {
+            return get(itemId, userId, null);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> get(Integer itemId, Integer userId, String ifNoneMatch) {
+            return get("/" + itemId, userId, null, ifNoneMatch);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> update(Integer itemId, Integer userId) {
+            return patch("/" + itemId, userId, null);
+        }
+    }
+}
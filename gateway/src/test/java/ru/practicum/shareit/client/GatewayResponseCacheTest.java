@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GatewayResponseCacheTest {
+
+    private static final URI ITEM_URI = URI.create("http://localhost:9090/items/1");
+
+    private GatewayResponseCache responseCache;
+
+    private GatewayResponseCache.Route items;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        responseCache = new GatewayResponseCache(100);
+        items = responseCache.route("items", Duration.ofMinutes(1), "items", "bookings");
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldLoadOnce_whenSameUserRequestsSameUri() {
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldKeepUsersApart() {
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+        items.get(2, ITEM_URI, () -> load(HttpStatus.OK));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheErrorResponses() {
+        items.get(1, ITEM_URI, () -> load(HttpStatus.NOT_FOUND));
+        items.get(1, ITEM_URI, () -> load(HttpStatus.NOT_FOUND));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictInvalidated_shouldDropRelatedRoutesOnly() {
+        GatewayResponseCache.Route bookings = responseCache.route("bookings", Duration.ofMinutes(1), "bookings");
+        GatewayResponseCache.Route requests = responseCache.route("requests", Duration.ofMinutes(1), "requests");
+        URI bookingUri = URI.create("http://localhost:9090/bookings/1");
+        URI requestUri = URI.create("http://localhost:9090/requests/1");
+
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+        bookings.get(1, bookingUri, () -> load(HttpStatus.OK));
+        requests.get(1, requestUri, () -> load(HttpStatus.OK));
+
+        items.evictInvalidated();
+
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+        bookings.get(1, bookingUri, () -> load(HttpStatus.OK));
+        requests.get(1, requestUri, () -> load(HttpStatus.OK));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void isCached_shouldBeFalse_whenTtlIsZero() {
+        assertFalse(responseCache.route("users", Duration.ZERO, "users").isCached());
+        assertTrue(items.isCached());
+    }
+
+    @Test
+    void evict_shouldDropGivenRoutes() {
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+
+        responseCache.evict(Set.of("items"));
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheResponse_whenRouteWasEvictedDuringLoad() {
+        CompletableFuture<ResponseEntity<Object>> staleLoad = new CompletableFuture<>();
+        items.get(1, ITEM_URI, () -> staleLoad);
+
+        responseCache.evict(Set.of("items"));
+        staleLoad.complete(ResponseEntity.ok("{}"));
+        items.get(1, ITEM_URI, () -> load(HttpStatus.OK));
+
+        assertEquals(1, loads.get());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> load(HttpStatus status) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(ResponseEntity.status(status).body("{}"));
+    }
+}
@@ -6,18 +6,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -48,13 +54,17 @@ public class ItemControllerTest {
         String itemJson = objectMapper.writeValueAsString(itemDto);
         ResponseEntity<Object> response = new ResponseEntity<>(itemJson, HttpStatus.OK);
 
-        when(itemClient.add(any(), anyInt())).thenReturn(response);
+        when(itemClient.add(any(), anyInt())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(post("/items")
+        MvcResult mvcResult = mockMvc.perform(post("/items")
                         .content(objectMapper.writeValueAsString(itemDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -70,13 +80,17 @@ public class ItemControllerTest {
         String itemJson = objectMapper.writeValueAsString(itemDto);
         ResponseEntity<Object> response = new ResponseEntity<>(itemJson, HttpStatus.OK);
 
-        when(itemClient.update(any(), anyInt(), anyInt())).thenReturn(response);
+        when(itemClient.update(any(), anyInt(), anyInt())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(patch("/items/{Id}", 1)
+        MvcResult mvcResult = mockMvc.perform(patch("/items/{Id}", 1)
                         .content(objectMapper.writeValueAsString(itemDtoWithRequestId))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -93,7 +107,7 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(itemClient).get(anyInt(), anyInt());
+        verify(itemClient).get(anyInt(), anyInt(), isNull());
     }
 
     @Test
@@ -102,7 +116,7 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(itemClient).getAll(any());
+        verify(itemClient).getAll(any(), isNull());
     }
 
     @Test
@@ -112,7 +126,7 @@ public class ItemControllerTest {
                         .param("text", "balalaika"))
                 .andExpect(status().isOk());
 
-        verify(itemClient).search(anyInt(), any());
+        verify(itemClient).search(anyInt(), any(), any(), any(), any());
     }
 
     @Test
@@ -120,13 +134,17 @@ public class ItemControllerTest {
         String commentJson = objectMapper.writeValueAsString(commentDto);
         ResponseEntity<Object> response = new ResponseEntity<>(commentJson, HttpStatus.OK);
 
-        when(itemClient.addComment(anyInt(), anyInt(), any())).thenReturn(response);
+        when(itemClient.addComment(anyInt(), anyInt(), any())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(post("/items/{id}/comment", 1)
+        MvcResult mvcResult = mockMvc.perform(post("/items/{id}/comment", 1)
                         .content(objectMapper.writeValueAsString(commentDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -136,4 +154,23 @@ public class ItemControllerTest {
 
         verify(itemClient).addComment(anyInt(), anyInt(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void get_shouldForwardIfNoneMatchAndReturnStatusNotModified() throws Exception {
+        ResponseEntity<Object> response = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("abc").build();
+
+        when(itemClient.get(1, 1, "\"abc\"")).thenReturn(CompletableFuture.completedFuture(response));
+
+        MvcResult mvcResult = mockMvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+
+        verify(itemClient).get(1, 1, "\"abc\"");
+    }
+}
@@ -10,13 +10,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.request.dto.RequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RequestController.class)
@@ -43,13 +48,17 @@ public class RequestControllerTest {
         String requestJson = objectMapper.writeValueAsString(requestDto);
         ResponseEntity<Object> response = new ResponseEntity<>(requestJson, HttpStatus.OK);
 
-        when(requestClient.add(anyInt(), any())).thenReturn(response);
+        when(requestClient.add(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(post("/requests")
+        MvcResult mvcResult = mockMvc.perform(post("/requests")
                         .content(objectMapper.writeValueAsString(requestDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -66,7 +75,7 @@ public class RequestControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(requestClient).getByUser(anyInt());
+        verify(requestClient).getByUser(anyInt(), isNull());
     }
 
     @Test
@@ -77,7 +86,7 @@ public class RequestControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(requestClient).getAll(anyInt(), anyInt(), anyInt());
+        verify(requestClient).getAll(anyInt(), anyInt(), anyInt(), any(), isNull());
     }
 
     @Test
@@ -86,6 +95,6 @@ public class RequestControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(requestClient).get(anyInt(), anyInt());
+        verify(requestClient).get(anyInt(), anyInt(), isNull());
     }
 }
\ No newline at end of file
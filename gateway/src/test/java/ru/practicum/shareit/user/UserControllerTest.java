@@ -10,12 +10,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -42,12 +46,16 @@ public class UserControllerTest {
         String userJson = objectMapper.writeValueAsString(userDto);
         ResponseEntity<Object> response = new ResponseEntity<>(userJson, HttpStatus.OK);
 
-        when(userClient.add(any())).thenReturn(response);
+        when(userClient.add(any())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(post("/users")
+        MvcResult mvcResult = mockMvc.perform(post("/users")
                         .content(objectMapper.writeValueAsString(userDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -63,12 +71,16 @@ public class UserControllerTest {
         String userJson = objectMapper.writeValueAsString(userDto);
         ResponseEntity<Object> response = new ResponseEntity<>(userJson, HttpStatus.OK);
 
-        when(userClient.update(any(), anyInt())).thenReturn(response);
+        when(userClient.update(any(), anyInt())).thenReturn(CompletableFuture.completedFuture(response));
 
-        String content = mockMvc.perform(patch("/users/{id}", 1)
+        MvcResult mvcResult = mockMvc.perform(patch("/users/{id}", 1)
                         .content(objectMapper.writeValueAsString(userDto))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -0,0 +1,52 @@
+-- Booking query benchmark for PostgreSQL.
+-- Run against an empty database migrated by the server (db/migration):
+--   psql -v bookings=10000000 -f server/benchmark/booking_queries.sql
+-- Prints EXPLAIN ANALYZE output for every BookingRepository state query,
+-- first without the secondary indexes, then with them.
+
+\set ON_ERROR_STOP on
+\if :{?bookings}
+\else
+\set bookings 10000000
+\endif
+\set users 100000
+\set items 200000
+\set booker 4242
+\set owner 4242
+\timing on
+
+TRUNCATE users, requests, items, bookings, comments RESTART IDENTITY CASCADE;
+
+INSERT INTO users (name, email)
+SELECT 'user' || n, 'user' || n || '@shareit.ru'
+FROM generate_series(1, :users) AS n;
+
+INSERT INTO items (name, description, is_available, owner_id)
+SELECT 'item' || n, 'description of item ' || n, n % 10 <> 0, 1 + (n - 1) % :users
+FROM generate_series(1, :items) AS n;
+
+INSERT INTO bookings (start_time, end_time, item_id, booker_id, status)
+SELECT start_time, start_time + interval '2 days', 1 + (n::bigint * 7919) % :items, 1 + (n::bigint * 104729) % :users,
+       (ARRAY ['WAITING', 'APPROVED', 'APPROVED', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + n % 6]
+FROM (SELECT n, now() - interval '2 years' + (n % 1500000) * interval '1 minute' AS start_time
+      FROM generate_series(1, :bookings) AS n) AS generated;
+
+DROP INDEX IF EXISTS IDX_ITEM_OWNER;
+DROP INDEX IF EXISTS IDX_BOOKING_ITEM_START;
+DROP INDEX IF EXISTS IDX_BOOKING_ITEM_STATUS_START;
+DROP INDEX IF EXISTS IDX_BOOKING_BOOKER_START;
+DROP INDEX IF EXISTS IDX_BOOKING_BOOKER_STATUS_START;
+VACUUM ANALYZE;
+
+\echo '=== without secondary indexes ==='
+\ir booking_state_queries.sql
+
+CREATE INDEX IDX_ITEM_OWNER ON items (owner_id, id);
+CREATE INDEX IDX_BOOKING_ITEM_START ON bookings (item_id, start_time);
+CREATE INDEX IDX_BOOKING_ITEM_STATUS_START ON bookings (item_id, status, start_time);
+CREATE INDEX IDX_BOOKING_BOOKER_START ON bookings (booker_id, start_time);
+CREATE INDEX IDX_BOOKING_BOOKER_STATUS_START ON bookings (booker_id, status, start_time);
+VACUUM ANALYZE;
+
+\echo '=== with secondary indexes ==='
+\ir booking_state_queries.sql
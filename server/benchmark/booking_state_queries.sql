@@ -0,0 +1,73 @@
+-- Queries issued by BookingServiceImpl.getAll and getAllByOwner for the first page of each state.
+
+\echo 'booker ALL'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'booker CURRENT'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker AND b.start_time < now() AND b.end_time > now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'booker PAST'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker AND b.end_time < now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'booker FUTURE'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker AND b.start_time > now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'booker WAITING'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker AND b.status = 'WAITING'
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'booker REJECTED'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b
+WHERE b.booker_id = :booker AND b.status = 'REJECTED'
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner ALL'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner CURRENT'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.start_time < now() AND b.end_time > now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner PAST'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.end_time < now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner FUTURE'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.start_time > now()
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner WAITING'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.status = 'WAITING'
+ORDER BY b.start_time DESC LIMIT 10;
+
+\echo 'owner REJECTED'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.status = 'REJECTED'
+ORDER BY b.start_time DESC LIMIT 10;
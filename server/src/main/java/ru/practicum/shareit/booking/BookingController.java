@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -22,6 +26,12 @@ public class BookingController {
         return ResponseEntity.ok().body(bookingService.add(userId, bookingDtoInput));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BookingBulkResult>> addAll(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                          @RequestBody List<BookingDtoInput> bookingDtoInputs) {
+        return ResponseEntity.ok().body(bookingService.addAll(userId, bookingDtoInputs));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDtoOutput> setApprove(@PathVariable Integer bookingId,
                                                    @RequestHeader("X-Sharer-User-Id") Integer ownerId,
@@ -29,25 +39,46 @@ public class BookingController {
         return ResponseEntity.ok().body(bookingService.setApprove(bookingId, ownerId, isApproved));
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<List<BookingBulkResult>> setApproveAll(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
+                                                                 @RequestParam("approved") Boolean isApproved,
+                                                                 @RequestBody List<Integer> bookingIds) {
+        return ResponseEntity.ok().body(bookingService.setApproveAll(ownerId, bookingIds, isApproved));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDtoOutput> get(@PathVariable Integer bookingId,
                                                 @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(bookingService.get(bookingId, userId));
+        BookingDtoOutput booking = bookingService.get(bookingId, userId);
+        return ResponseEntity.ok().eTag(EntityTags.ofBooking(booking)).body(booking);
     }
 
     @GetMapping
     public ResponseEntity<List<BookingDtoOutput>> getAll(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
                                                          @RequestParam(name = "from", required = false) Integer from,
                                                          @RequestParam(name = "size", required = false) Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor,
                                                          @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(bookingService.getAll(searchMode, userId, from, size));
+        return toResponse(bookingService.getAll(searchMode, userId, from, size, cursor));
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDtoOutput>> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
                                                                 @RequestParam(name = "from", required = false) Integer from,
                                                                 @RequestParam(name = "size", required = false) Integer size,
+                                                                @RequestParam(name = "cursor", required = false) String cursor,
                                                                 @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(bookingService.getAllByOwner(searchMode, userId, from, size));
+        return toResponse(bookingService.getAllByOwner(searchMode, userId, from, size, cursor));
+    }
+
+    private static ResponseEntity<List<BookingDtoOutput>> toResponse(Slice<BookingDtoOutput> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(EntityTags.ofBookings(bookings.getContent()));
+
+        if (bookings.hasNext()) {
+            BookingDtoOutput lastBooking = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(lastBooking.getStart(), lastBooking.getId()).encode());
+        }
+
+        return response.body(bookings.getContent());
     }
 }
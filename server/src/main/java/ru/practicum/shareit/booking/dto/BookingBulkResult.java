@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBulkResult {
+    private Integer index;
+    private Integer status;
+    private BookingDtoOutput booking;
+    private String error;
+
+    public static BookingBulkResult succeeded(Integer index, BookingDtoOutput booking) {
+        return new BookingBulkResult(index, HttpStatus.OK.value(), booking, null);
+    }
+
+    public static BookingBulkResult failed(Integer index, Integer status, String error) {
+        return new BookingBulkResult(index, status, null, error);
+    }
+}
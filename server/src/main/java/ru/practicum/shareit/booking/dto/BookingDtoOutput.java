@@ -1,6 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -10,7 +10,6 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class BookingDtoOutput {
     private Integer id;
@@ -19,4 +18,16 @@ public class BookingDtoOutput {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    @JsonIgnore
+    private Integer version;
+
+    public BookingDtoOutput(Integer id, LocalDateTime start, LocalDateTime end, ItemDto item, UserDto booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
 }
@@ -1,40 +1,183 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
-    List<Booking> findByItemIdAndStartIsAfterAndStatusNot(Integer itemId, LocalDateTime currentDateTime, BookingStatus status, Sort sort);
+    @Override
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Optional<Booking> findById(Integer id);
 
-    List<Booking> findByItemIdAndStartIsBeforeAndStatusNot(Integer itemId, LocalDateTime currentDateTime, BookingStatus status, Sort sort);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    List<Booking> findByIdIn(Collection<Integer> ids);
 
-    Page<Booking> findByBookerId(Integer bookerId, Pageable pageable);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids and b.status = :currentStatus " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusByItemOwnerId(@Param("ids") Collection<Integer> ids,
+                                  @Param("ownerId") Integer ownerId,
+                                  @Param("currentStatus") BookingStatus currentStatus,
+                                  @Param("status") BookingStatus status);
 
-    Page<Booking> findByBookerIdAndStartIsAfter(Integer bookerId, LocalDateTime currentDateTime, Pageable pageable);
+    Optional<Booking> findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(Integer itemId, LocalDateTime currentDateTime, BookingStatus status);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Integer bookerId, LocalDateTime currentDateTime, Pageable pageable);
+    Optional<Booking> findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(Integer itemId, LocalDateTime currentDateTime, BookingStatus status);
 
-    Page<Booking> findByBookerIdAndStatus(Integer userId, BookingStatus bookingStatus, Pageable pageable);
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status <> :status and b.start = " +
+            "(select max(lb.start) from Booking lb where lb.item = b.item and lb.start < :currentDateTime and lb.status <> :status)")
+    List<Booking> findLastByItemIdIn(@Param("itemIds") Collection<Integer> itemIds,
+                                     @Param("currentDateTime") LocalDateTime currentDateTime,
+                                     @Param("status") BookingStatus status);
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Integer bookerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Pageable pageable);
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status <> :status and b.start = " +
+            "(select min(nb.start) from Booking nb where nb.item = b.item and nb.start > :currentDateTime and nb.status <> :status)")
+    List<Booking> findNextByItemIdIn(@Param("itemIds") Collection<Integer> itemIds,
+                                     @Param("currentDateTime") LocalDateTime currentDateTime,
+                                     @Param("status") BookingStatus status);
 
-    Page<Booking> findByItemOwnerId(Integer userId, Pageable pageable);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByBookerId(Integer bookerId, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, Pageable pageable);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByBookerIdAndStartIsAfter(Integer bookerId, LocalDateTime currentDateTime, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndEndIsBefore(Integer itemOwnerId, LocalDateTime currentDateTime, Pageable pageable);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByBookerIdAndEndIsBefore(Integer bookerId, LocalDateTime currentDateTime, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStatus(Integer itemOwnerId, BookingStatus bookingStatus, Pageable pageable);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByBookerIdAndStatus(Integer userId, BookingStatus bookingStatus, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Pageable pageable);
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Integer bookerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByItemOwnerId(Integer userId, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByItemOwnerIdAndStartIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByItemOwnerIdAndEndIsBefore(Integer itemOwnerId, LocalDateTime currentDateTime, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByItemOwnerIdAndStatus(Integer itemOwnerId, BookingStatus bookingStatus, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Slice<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.booker.id = :bookerId" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findByBookerIdSeek(@Param("bookerId") Integer bookerId,
+                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                      @Param("cursorId") Integer cursorId,
+                                      Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.start < :currentDateTime and b.end > :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findCurrentByBookerIdSeek(@Param("bookerId") Integer bookerId,
+                                             @Param("currentDateTime") LocalDateTime currentDateTime,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Integer cursorId,
+                                             Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.end < :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findPastByBookerIdSeek(@Param("bookerId") Integer bookerId,
+                                          @Param("currentDateTime") LocalDateTime currentDateTime,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Integer cursorId,
+                                          Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.start > :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findFutureByBookerIdSeek(@Param("bookerId") Integer bookerId,
+                                            @Param("currentDateTime") LocalDateTime currentDateTime,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Integer cursorId,
+                                            Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.status = :status" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findByBookerIdAndStatusSeek(@Param("bookerId") Integer bookerId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Integer cursorId,
+                                               Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.item.owner.id = :ownerId" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findByItemOwnerIdSeek(@Param("ownerId") Integer ownerId,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Integer cursorId,
+                                         Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.start < :currentDateTime and b.end > :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findCurrentByItemOwnerIdSeek(@Param("ownerId") Integer ownerId,
+                                                @Param("currentDateTime") LocalDateTime currentDateTime,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Integer cursorId,
+                                                Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.end < :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findPastByItemOwnerIdSeek(@Param("ownerId") Integer ownerId,
+                                             @Param("currentDateTime") LocalDateTime currentDateTime,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Integer cursorId,
+                                             Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.start > :currentDateTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findFutureByItemOwnerIdSeek(@Param("ownerId") Integer ownerId,
+                                               @Param("currentDateTime") LocalDateTime currentDateTime,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Integer cursorId,
+                                               Pageable pageable);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.status = :status" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findByItemOwnerIdAndStatusSeek(@Param("ownerId") Integer ownerId,
+                                                  @Param("status") BookingStatus status,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Integer cursorId,
+                                                  Pageable pageable);
 }
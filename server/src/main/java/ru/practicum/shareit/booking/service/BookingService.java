@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 
@@ -8,11 +10,15 @@ import java.util.List;
 public interface BookingService {
     BookingDtoOutput add(Integer userId, BookingDtoInput bookingDtoInput);
 
+    List<BookingBulkResult> addAll(Integer userId, List<BookingDtoInput> bookingDtoInputs);
+
     BookingDtoOutput setApprove(Integer bookingId, Integer userId, Boolean isApproved);
 
+    List<BookingBulkResult> setApproveAll(Integer userId, List<Integer> bookingIds, Boolean isApproved);
+
     BookingDtoOutput get(Integer bookingId, Integer userId);
 
-    List<BookingDtoOutput> getAll(String bookingStatus, Integer userId, Integer from, Integer size);
+    Slice<BookingDtoOutput> getAll(String bookingStatus, Integer userId, Integer from, Integer size, String cursor);
 
-    List<BookingDtoOutput> getAllByOwner(String bookingStatus, Integer userId, Integer from, Integer size);
+    Slice<BookingDtoOutput> getAllByOwner(String bookingStatus, Integer userId, Integer from, Integer size, String cursor);
 }
\ No newline at end of file
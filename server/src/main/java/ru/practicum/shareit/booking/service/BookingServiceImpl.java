@@ -3,9 +3,12 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -15,65 +18,115 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.service.ItemDtoCache;
+import ru.practicum.shareit.loader.EntityLoader;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT = Sort.by("start", "id").descending();
+    private static final int MAX_SLICE_SIZE = Integer.MAX_VALUE - 1;
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
-    private final UserRepository userRepository;
+    private final EntityLoader entityLoader;
     private final ItemRepository itemRepository;
+    private final ItemDtoCache itemDtoCache;
 
     @Override
     public BookingDtoOutput add(Integer bookerId, BookingDtoInput bookingDtoInput) {
         validateBookingDtoInput(bookingDtoInput);
-        validateUser(bookerId);
-        validateItem(bookingDtoInput.getItemId());
+        User booker = entityLoader.loadUser(bookerId);
+        Item item = entityLoader.loadItem(bookingDtoInput.getItemId());
 
-        Optional<Item> optionalItem = itemRepository.findById(bookingDtoInput.getItemId());
-        if (optionalItem.isEmpty()) {
-            throw new ObjectNotFoundException("Failed to receive item.");
-        }
-        Item item = optionalItem.get();
+        Booking booking = bookingRepository.save(toNewBooking(bookingDtoInput, booker, item));
+        itemDtoCache.evict(booking.getItem().getId());
+        return bookingMapper.toBookingDtoOutput(booking);
+    }
 
-        if (!item.getAvailable()) {
-            throw new UnavailableItemBookingException("Failed to create booking. Items with status 'unavailable' can't be booked.");
+    @Override
+    public List<BookingBulkResult> addAll(Integer bookerId, List<BookingDtoInput> bookingDtoInputs) {
+        if (bookingDtoInputs == null || bookingDtoInputs.isEmpty() || bookingDtoInputs.size() > MAX_BULK_SIZE) {
+            throw new DtoIntegrityException("Failed to process request. Bulk request must contain from 1 to " + MAX_BULK_SIZE + " bookings.");
         }
-        if (item.getOwner().getId().equals(bookerId)) {
-            throw new IllegalItemBookingException("Failed to create booking. Item owners are not allowed to book their own items.");
+
+        User booker = entityLoader.loadUser(bookerId);
+
+        Set<Integer> itemIds = bookingDtoInputs.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDtoInput::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        LocalDateTime currentDateTime = LocalDateTime.now();
+        BookingBulkResult[] results = new BookingBulkResult[bookingDtoInputs.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+
+        for (int i = 0; i < bookingDtoInputs.size(); i++) {
+            BookingDtoInput bookingDtoInput = bookingDtoInputs.get(i);
+            try {
+                if (bookingDtoInput == null) {
+                    throw new DtoIntegrityException("Failed to process request. Booking must not be empty.");
+                }
+                validateBookingDtoInput(bookingDtoInput);
+                if (bookingDtoInput.getStart().isBefore(currentDateTime)) {
+                    throw new DtoIntegrityException("Failed to process request. Start time must not be in the past.");
+                }
+
+                Item item = items.get(bookingDtoInput.getItemId());
+                if (item == null) {
+                    throw new ObjectNotFoundException("Failed to process request. Item with id = " + bookingDtoInput.getItemId() + " doesn't exist.");
+                }
+
+                bookings.add(toNewBooking(bookingDtoInput, booker, item));
+                validIndexes.add(i);
+            } catch (DtoIntegrityException | UnavailableItemBookingException e) {
+                results[i] = BookingBulkResult.failed(i, HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            } catch (ObjectNotFoundException | IllegalItemBookingException e) {
+                results[i] = BookingBulkResult.failed(i, HttpStatus.NOT_FOUND.value(), e.getMessage());
+            }
         }
 
-        Booking booking = bookingMapper.toBooking(bookingDtoInput);
-        booking.setBooker(userRepository.findById(bookerId).get());
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setItem(item);
+        if (!bookings.isEmpty()) {
+            List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+            for (int i = 0; i < savedBookings.size(); i++) {
+                Integer index = validIndexes.get(i);
+                results[index] = BookingBulkResult.succeeded(index, bookingMapper.toBookingDtoOutput(savedBookings.get(i)));
+            }
+            bookings.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .distinct()
+                    .forEach(itemDtoCache::evict);
+        }
 
-        booking = bookingRepository.save(booking);
-        return bookingMapper.toBookingDtoOutput(booking);
+        return Arrays.asList(results);
     }
 
     @Override
     public BookingDtoOutput setApprove(Integer bookingId, Integer userId, Boolean isApproved) {
-        validateBooking(bookingId);
-        validateUser(userId);
-
-        Optional<Booking> optionalBooking = bookingRepository.findById(bookingId);
-        if (optionalBooking.isEmpty()) {
-            throw new ObjectNotFoundException("Booking with id = " + bookingId + " was not found.");
-        }
-        Booking booking = optionalBooking.get();
+        Booking booking = getBooking(bookingId);
 
         Integer itemOwnerId = booking.getItem().getOwner().getId();
 
         if (!Objects.equals(userId, itemOwnerId)) {
+            entityLoader.requireUser(userId);
             throw new IllegalItemBookingException("Failed to change booking status. Only item owners are allowed to change booking status.");
         }
 
@@ -88,113 +141,206 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking = bookingRepository.save(booking);
+        itemDtoCache.evict(booking.getItem().getId());
         return bookingMapper.toBookingDtoOutput(booking);
     }
 
     @Override
-    public BookingDtoOutput get(Integer bookingId, Integer userId) {
-        validateBooking(bookingId);
-        validateUser(userId);
+    public List<BookingBulkResult> setApproveAll(Integer userId, List<Integer> bookingIds, Boolean isApproved) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BULK_SIZE) {
+            throw new DtoIntegrityException("Failed to process request. Bulk request must contain from 1 to " + MAX_BULK_SIZE + " bookings.");
+        }
+        entityLoader.requireUser(userId);
+
+        Map<Integer, Booking> bookings = bookingRepository.findByIdIn(bookingIds.stream()
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        BookingBulkResult[] results = new BookingBulkResult[bookingIds.size()];
+        List<Integer> waitingIndexes = new ArrayList<>();
+        Set<Integer> waitingIds = new HashSet<>();
+
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Integer bookingId = bookingIds.get(i);
+            Booking booking = bookings.get(bookingId);
+
+            if (booking == null) {
+                results[i] = BookingBulkResult.failed(i, HttpStatus.NOT_FOUND.value(),
+                        "Failed to process request. Booking with id = " + bookingId + " doesn't exist.");
+            } else if (!Objects.equals(userId, booking.getItem().getOwner().getId())) {
+                results[i] = BookingBulkResult.failed(i, HttpStatus.NOT_FOUND.value(),
+                        "Failed to change booking status. Only item owners are allowed to change booking status.");
+            } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+                results[i] = BookingBulkResult.failed(i, HttpStatus.BAD_REQUEST.value(), "Booking status must be 'WAITING'.");
+            } else {
+                waitingIndexes.add(i);
+                waitingIds.add(bookingId);
+            }
+        }
 
-        Optional<Booking> optionalBooking = bookingRepository.findById(bookingId);
-        if (optionalBooking.isEmpty()) {
-            throw new ObjectNotFoundException("Booking with id = " + bookingId + "was not found.");
+        if (!waitingIds.isEmpty()) {
+            int updated = bookingRepository.updateStatusByItemOwnerId(waitingIds, userId, BookingStatus.WAITING, status);
+            Set<Integer> updatedIds = updated == waitingIds.size() ? waitingIds : getUpdatedIds(waitingIds, status);
+
+            for (Integer index : waitingIndexes) {
+                Booking booking = bookings.get(bookingIds.get(index));
+                if (updatedIds.contains(booking.getId())) {
+                    booking.setStatus(status);
+                    results[index] = BookingBulkResult.succeeded(index, bookingMapper.toBookingDtoOutput(booking));
+                } else {
+                    results[index] = BookingBulkResult.failed(index, HttpStatus.CONFLICT.value(),
+                            "Failed to change booking status. Booking was modified concurrently, please retry.");
+                }
+            }
+
+            updatedIds.stream()
+                    .map(bookingId -> bookings.get(bookingId).getItem().getId())
+                    .distinct()
+                    .forEach(itemDtoCache::evict);
         }
-        Booking booking = optionalBooking.get();
+
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public BookingDtoOutput get(Integer bookingId, Integer userId) {
+        Booking booking = getBooking(bookingId);
 
         Integer itemOwnerId = booking.getItem().getOwner().getId();
         Integer bookerId = booking.getBooker().getId();
 
         if (!userId.equals(itemOwnerId) && !userId.equals(bookerId)) {
+            entityLoader.requireUser(userId);
             throw new ObjectNotFoundException("Failed to get booking. Only item owners and item bookers are allowed to view bookings.");
         }
 
         return bookingMapper.toBookingDtoOutput(booking);
     }
 
-    public List<BookingDtoOutput> getAll(String bookingSearchMode, Integer userId, Integer from, Integer size) {
-        validateUser(userId);
-
-        Sort sort = Sort.by("start").descending();
-
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            throw new ObjectNotFoundException("User with id = " + userId + "was not found.");
-        }
+    @Override
+    public Slice<BookingDtoOutput> getAll(String bookingSearchMode, Integer userId, Integer from, Integer size, String cursor) {
+        entityLoader.requireUser(userId);
 
         LocalDateTime currentDateTime = LocalDateTime.now();
-        LocalDateTime currentTime = LocalDateTime.now();
         BookingSearchMode searchMode = BookingSearchMode.valueOf(bookingSearchMode.toUpperCase());
+        int pageSize = Math.min(size, MAX_SLICE_SIZE);
+
+        if (cursor != null) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            LocalDateTime cursorStart = keysetCursor.getTimestamp();
+            Integer cursorId = keysetCursor.getId();
+            Pageable pageable = PageRequest.ofSize(pageSize);
+
+            switch (searchMode) {
+                case ALL:
+                    return bookingRepository.findByBookerIdSeek(userId, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case CURRENT:
+                    return bookingRepository.findCurrentByBookerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case PAST:
+                    return bookingRepository.findPastByBookerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case FUTURE:
+                    return bookingRepository.findFutureByBookerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case WAITING:
+                    return bookingRepository.findByBookerIdAndStatusSeek(userId, BookingStatus.WAITING, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case REJECTED:
+                    return bookingRepository.findByBookerIdAndStatusSeek(userId, BookingStatus.REJECTED, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                default:
+                    throw new IllegalSearchModeException("Unknown state: " + bookingSearchMode);
+            }
+        }
+
+        Pageable pageable = PageRequest.of(from / pageSize, pageSize, SORT);
 
         switch (searchMode) {
             case ALL:
-                return bookingRepository.findByBookerId(userId, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerId(userId, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case CURRENT:
-                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, currentDateTime, currentTime, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, currentDateTime, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case PAST:
-                return bookingRepository.findByBookerIdAndEndIsBefore(userId, currentDateTime, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndEndIsBefore(userId, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case FUTURE:
-                return bookingRepository.findByBookerIdAndStartIsAfter(userId, currentDateTime, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStartIsAfter(userId, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case WAITING:
-                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case REJECTED:
-                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             default:
                 throw new IllegalSearchModeException("Unknown state: " + bookingSearchMode);
         }
     }
 
-    public List<BookingDtoOutput> getAllByOwner(String bookingSearchMode, Integer userId, Integer from, Integer size) {
-        validateUser(userId);
-
-        Sort sort = Sort.by("start").descending();
-
-        Pageable pageable = PageRequest.of(from / size, size, sort);
+    @Override
+    public Slice<BookingDtoOutput> getAllByOwner(String bookingSearchMode, Integer userId, Integer from, Integer size, String cursor) {
+        entityLoader.requireUser(userId);
 
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            throw new ObjectNotFoundException("User with id = " + userId + " was not found.");
+        LocalDateTime currentDateTime = LocalDateTime.now();
+        int pageSize = Math.min(size, MAX_SLICE_SIZE);
+
+        if (cursor != null) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            LocalDateTime cursorStart = keysetCursor.getTimestamp();
+            Integer cursorId = keysetCursor.getId();
+            Pageable pageable = PageRequest.ofSize(pageSize);
+
+            switch (bookingSearchMode) {
+                case "ALL":
+                    return bookingRepository.findByItemOwnerIdSeek(userId, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case "CURRENT":
+                    return bookingRepository.findCurrentByItemOwnerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case "PAST":
+                    return bookingRepository.findPastByItemOwnerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case "FUTURE":
+                    return bookingRepository.findFutureByItemOwnerIdSeek(userId, currentDateTime, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case "WAITING":
+                    return bookingRepository.findByItemOwnerIdAndStatusSeek(userId, BookingStatus.WAITING, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                case "REJECTED":
+                    return bookingRepository.findByItemOwnerIdAndStatusSeek(userId, BookingStatus.REJECTED, cursorStart, cursorId, pageable)
+                            .map(bookingMapper::toBookingDtoOutput);
+                default:
+                    throw new IllegalSearchModeException("Unknown state: " + bookingSearchMode);
+            }
         }
 
+        Pageable pageable = PageRequest.of(from / pageSize, pageSize, SORT);
+
         switch (bookingSearchMode) {
             case "ALL":
-                return bookingRepository.findByItemOwnerId(userId, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerId(userId, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case "CURRENT":
-                return bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(), LocalDateTime.now(), pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, currentDateTime, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case "PAST":
-                return bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case "FUTURE":
-                return bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, LocalDateTime.now(), pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, currentDateTime, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case "WAITING":
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             case "REJECTED":
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable)
+                        .map(bookingMapper::toBookingDtoOutput);
             default:
                 throw new IllegalSearchModeException("Unknown state: " + bookingSearchMode);
         }
@@ -213,21 +359,30 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private void validateUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ObjectNotFoundException("Failed to process request. User with id = " + userId + " doesn't exist.");
+    private Booking toNewBooking(BookingDtoInput bookingDtoInput, User booker, Item item) {
+        if (!item.getAvailable()) {
+            throw new UnavailableItemBookingException("Failed to create booking. Items with status 'unavailable' can't be booked.");
+        }
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw new IllegalItemBookingException("Failed to create booking. Item owners are not allowed to book their own items.");
         }
+
+        Booking booking = bookingMapper.toBooking(bookingDtoInput);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setItem(item);
+        return booking;
     }
 
-    private void validateItem(Integer itemId) {
-        if (!itemRepository.existsById(itemId)) {
-            throw new ObjectNotFoundException("Failed to process request. Item with id = " + itemId + " doesn't exist.");
-        }
+    private Set<Integer> getUpdatedIds(Set<Integer> bookingIds, BookingStatus status) {
+        return bookingRepository.findByIdIn(bookingIds).stream()
+                .filter(booking -> booking.getStatus().equals(status))
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
     }
 
-    private void validateBooking(Integer bookingId) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw new ObjectNotFoundException("Failed to process request. Booking with id = " + bookingId + " doesn't exist.");
-        }
+    private Booking getBooking(Integer bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ObjectNotFoundException("Failed to process request. Booking with id = " + bookingId + " doesn't exist."));
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoShortOutput;
+import ru.practicum.shareit.item.dto.CommentOutputDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.request.dto.RequestDtoOutput;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public final class EntityTags {
+    private static final char SEPARATOR = '|';
+
+    private EntityTags() {
+    }
+
+    public static String ofItem(ItemDtoExtended item) {
+        StringBuilder fingerprint = new StringBuilder();
+        appendItem(fingerprint, item);
+        return digest(fingerprint);
+    }
+
+    public static String ofItems(List<ItemDtoExtended> items) {
+        StringBuilder fingerprint = new StringBuilder();
+        items.forEach(item -> appendItem(fingerprint, item));
+        return digest(fingerprint);
+    }
+
+    public static String ofBooking(BookingDtoOutput booking) {
+        StringBuilder fingerprint = new StringBuilder();
+        appendBooking(fingerprint, booking);
+        return digest(fingerprint);
+    }
+
+    public static String ofBookings(List<BookingDtoOutput> bookings) {
+        StringBuilder fingerprint = new StringBuilder();
+        bookings.forEach(booking -> appendBooking(fingerprint, booking));
+        return digest(fingerprint);
+    }
+
+    public static String ofRequest(RequestDtoOutput request) {
+        StringBuilder fingerprint = new StringBuilder();
+        appendRequest(fingerprint, request);
+        return digest(fingerprint);
+    }
+
+    public static String ofRequests(List<RequestDtoOutput> requests) {
+        StringBuilder fingerprint = new StringBuilder();
+        requests.forEach(request -> appendRequest(fingerprint, request));
+        return digest(fingerprint);
+    }
+
+    private static void appendItem(StringBuilder fingerprint, ItemDtoExtended item) {
+        append(fingerprint, "item", item.getId(), item.getVersion());
+        if (item.getComments() != null) {
+            for (CommentOutputDto comment : item.getComments()) {
+                append(fingerprint, "comment", comment.getId(), comment.getAuthorName());
+            }
+        }
+        appendShortBooking(fingerprint, "last", item.getLastBooking());
+        appendShortBooking(fingerprint, "next", item.getNextBooking());
+    }
+
+    private static void appendShortBooking(StringBuilder fingerprint, String role, BookingDtoShortOutput booking) {
+        if (booking != null) {
+            append(fingerprint, role, booking.getId(), booking.getBookerId());
+        }
+    }
+
+    private static void appendBooking(StringBuilder fingerprint, BookingDtoOutput booking) {
+        append(fingerprint, "booking", booking.getId(), booking.getVersion());
+        ItemDto item = booking.getItem();
+        if (item != null) {
+            append(fingerprint, "item", item.getId(), item.getVersion());
+        }
+        UserDto booker = booking.getBooker();
+        if (booker != null) {
+            append(fingerprint, "booker", booker.getId(), booker.getName(), booker.getEmail());
+        }
+    }
+
+    private static void appendRequest(StringBuilder fingerprint, RequestDtoOutput request) {
+        append(fingerprint, "request", request.getId(), request.getVersion());
+        if (request.getItems() != null) {
+            for (ItemDto item : request.getItems()) {
+                append(fingerprint, "item", item.getId(), item.getVersion());
+            }
+        }
+    }
+
+    private static void append(StringBuilder fingerprint, Object... values) {
+        for (Object value : values) {
+            fingerprint.append(value).append(SEPARATOR);
+        }
+        fingerprint.append('\n');
+    }
+
+    private static String digest(StringBuilder fingerprint) {
+        return DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exceptions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -62,4 +63,11 @@ public class ControllerExceptionHandler {
         log.error(exception.getMessage());
         return Map.of("error", exception.getMessage());
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String, String> validationException(OptimisticLockingFailureException exception) {
+        log.error(exception.getMessage());
+        return Map.of("error", "Failed to process request. The entity was modified concurrently, please retry.");
+    }
 }
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.item.dto.CommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtended;
@@ -10,7 +15,11 @@ import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/items")
@@ -19,6 +28,8 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<ItemDtoWithRequestId> add(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                                     @RequestBody ItemDtoWithRequestId itemDto) {
@@ -33,20 +44,28 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemDto> get(@PathVariable Integer itemId,
+    public ResponseEntity<ItemDtoExtended> get(@PathVariable Integer itemId,
                                        @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(itemService.get(itemId, userId));
+        ItemDtoExtended item = itemService.get(itemId, userId);
+        return ResponseEntity.ok().eTag(EntityTags.ofItem(item)).body(item);
     }
 
     @GetMapping
     public ResponseEntity<List<ItemDtoExtended>> getAll(@RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(itemService.getAll(userId));
+        List<ItemDtoExtended> items = itemService.getAll(userId);
+        return ResponseEntity.ok().eTag(EntityTags.ofItems(items)).body(items);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> search(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                @RequestParam("text") String text) {
-        return ResponseEntity.ok().body(itemService.search(userId, text));
+    public ResponseEntity<StreamingResponseBody> search(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                        @RequestParam("text") String text,
+                                                        @RequestParam(name = "from", required = false) Integer from,
+                                                        @RequestParam(name = "size", required = false) Integer size,
+                                                        @RequestParam(name = "after", required = false) Integer after) {
+        Stream<ItemDto> items = itemService.search(userId, text, from, size, after);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> writeJsonArray(items, outputStream));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -55,4 +74,16 @@ public class ItemController {
                                                        @RequestBody Comment comment) {
         return ResponseEntity.ok().body(itemService.addComment(itemId, userId, comment));
     }
+
+    private void writeJsonArray(Stream<ItemDto> items, OutputStream outputStream) throws IOException {
+        try (items; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+            Iterator<ItemDto> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
 }
@@ -1,15 +1,24 @@
 package ru.practicum.shareit.item.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class ItemDto {
     private Integer id;
     private String name;
     private String description;
     private Boolean available;
+
+    @JsonIgnore
+    private Integer version;
+
+    public ItemDto(Integer id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+    }
 }
@@ -13,6 +13,7 @@ public class ItemDtoExtended extends ItemDto {
 
     public ItemDtoExtended(ItemDto itemDto, List<CommentOutputDto> comments) {
         super(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
+        setVersion(itemDto.getVersion());
         this.comments = comments;
     }
 }
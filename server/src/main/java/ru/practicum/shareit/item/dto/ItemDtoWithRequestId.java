@@ -10,6 +10,7 @@ public class ItemDtoWithRequestId extends ItemDto {
 
     public ItemDtoWithRequestId(ItemDto itemDto, Integer requestId) {
         super(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
+        setVersion(itemDto.getVersion());
         this.requestId = requestId;
     }
 }
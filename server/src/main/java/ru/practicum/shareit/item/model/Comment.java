@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Comment {
     @Id
     @Positive
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Integer id;
 
     @NotNull(message = "Comment text must not be null.")
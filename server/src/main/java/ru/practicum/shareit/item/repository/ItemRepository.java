@@ -1,14 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
+    String LIKE_ESCAPE = "!";
+
     List<Item> findByOwnerIdOrderByIdAsc(Integer ownerId);
 
     List<Item> findByRequestId(Integer id);
+
+    List<Item> findByRequestIdIn(Collection<Integer> ids);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Integer afterId, Pageable pageable);
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '" + LIKE_ESCAPE + "' " +
+            "or lower(i.description) like :pattern escape '" + LIKE_ESCAPE + "') " +
+            "and i.id > :afterId " +
+            "order by i.id")
+    List<Item> searchAvailable(@Param("pattern") String pattern, @Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int afterId, int limit) {
+        return itemRepository.searchAvailable(toLikePattern(text), afterId, PageRequest.of(0, limit));
+    }
+
+    static String toLikePattern(String text) {
+        String escaped = text.toLowerCase()
+                .replace(ItemRepository.LIKE_ESCAPE, ItemRepository.LIKE_ESCAPE + ItemRepository.LIKE_ESCAPE)
+                .replace("%", ItemRepository.LIKE_ESCAPE + "%")
+                .replace("_", ItemRepository.LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    /**
+     * Returns up to {@code limit} matching items with id greater than {@code afterId}, ordered by id.
+     * A result shorter than {@code limit} means there are no more matches.
+     */
+    List<Item> search(String text, int afterId, int limit);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Integer itemId) {
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ItemSearchEngine, SmartLifecycle {
+    private static final int GRAM_SIZE = 3;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    // Starts before the embedded web server (phase Integer.MAX_VALUE - 1), so no request sees a partial index.
+    private static final int PHASE = 0;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+
+    private final NavigableMap<Integer, String> documents = new ConcurrentSkipListMap<>();
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public synchronized void rebuild() {
+        postings.clear();
+        documents.clear();
+
+        List<Item> page;
+        int lastItemId = 0;
+        do {
+            page = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastItemId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            page.forEach(this::index);
+            if (!page.isEmpty()) {
+                lastItemId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+
+        postings.values().forEach(PostingList::trim);
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        remove(item.getId());
+
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        String document = normalize(item.getName()) + FIELD_SEPARATOR + normalize(item.getDescription());
+        documents.put(item.getId(), document);
+        grams(document).forEach(gram -> postings.computeIfAbsent(gram, key -> new PostingList()).add(item.getId()));
+    }
+
+    @Override
+    public synchronized void remove(Integer itemId) {
+        String document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+
+        grams(document).forEach(gram -> {
+            PostingList itemIds = postings.get(gram);
+            if (itemIds != null) {
+                itemIds.remove(itemId);
+                if (itemIds.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text, int afterId, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<PostingList.Snapshot> queryPostings = query.length() < GRAM_SIZE ? List.of() : findPostings(query);
+        if (query.length() >= GRAM_SIZE && queryPostings.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Item> items = new ArrayList<>();
+        int lastCandidateId = afterId;
+        while (items.size() < limit) {
+            List<Integer> itemIds = query.length() < GRAM_SIZE
+                    ? scanCandidates(query, lastCandidateId, limit - items.size())
+                    : findCandidates(queryPostings, query, lastCandidateId, limit - items.size());
+            if (itemIds.isEmpty()) {
+                break;
+            }
+            lastCandidateId = itemIds.get(itemIds.size() - 1);
+
+            itemRepository.findAllById(itemIds).stream()
+                    .filter(Item::getAvailable)
+                    .filter(item -> normalize(item.getName()).contains(query)
+                            || normalize(item.getDescription()).contains(query))
+                    .sorted(Comparator.comparing(Item::getId))
+                    .forEach(items::add);
+        }
+        return items;
+    }
+
+    private List<PostingList.Snapshot> findPostings(String query) {
+        List<PostingList.Snapshot> queryPostings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList itemIds = postings.get(gram);
+            if (itemIds == null) {
+                return List.of();
+            }
+            queryPostings.add(itemIds.snapshot());
+        }
+
+        queryPostings.sort(Comparator.comparingInt(PostingList.Snapshot::size));
+        return queryPostings;
+    }
+
+    private List<Integer> findCandidates(List<PostingList.Snapshot> queryPostings, String query, int afterId, int limit) {
+        PostingList.Snapshot smallest = queryPostings.get(0);
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = smallest.indexAfter(afterId); i < smallest.size() && candidates.size() < limit; i++) {
+            int itemId = smallest.get(i);
+            if (queryPostings.stream().skip(1).allMatch(itemIds -> itemIds.contains(itemId))
+                    && matches(documents.get(itemId), query)) {
+                candidates.add(itemId);
+            }
+        }
+        return candidates;
+    }
+
+    private List<Integer> scanCandidates(String query, int afterId, int limit) {
+        return documents.tailMap(afterId, false).entrySet().stream()
+                .filter(document -> matches(document.getValue(), query))
+                .map(Map.Entry::getKey)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(String document, String query) {
+        return document != null && document.contains(query);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM_SIZE);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+}
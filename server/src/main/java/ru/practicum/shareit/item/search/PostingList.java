@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of item ids backed by an {@code int[]}. Writes must be serialized by the caller;
+ * reads work on an immutable {@link Snapshot} and need no locking.
+ */
+class PostingList {
+    private static final int[] EMPTY = new int[0];
+
+    private volatile Snapshot snapshot = new Snapshot(EMPTY, 0);
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    void add(int itemId) {
+        Snapshot current = snapshot;
+        int[] ids = current.ids;
+        int size = current.size;
+
+        if (size > 0 && ids[size - 1] >= itemId) {
+            int position = Arrays.binarySearch(ids, 0, size, itemId);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            int[] copy = new int[size + 1];
+            System.arraycopy(ids, 0, copy, 0, insertAt);
+            copy[insertAt] = itemId;
+            System.arraycopy(ids, insertAt, copy, insertAt + 1, size - insertAt);
+            snapshot = new Snapshot(copy, size + 1);
+            return;
+        }
+
+        // Ids come from a sequence, so new items are appended past the end that published snapshots can see.
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+        }
+        ids[size] = itemId;
+        snapshot = new Snapshot(ids, size + 1);
+    }
+
+    void remove(int itemId) {
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.ids, 0, current.size, itemId);
+        if (position < 0) {
+            return;
+        }
+
+        int[] copy = new int[current.size - 1];
+        System.arraycopy(current.ids, 0, copy, 0, position);
+        System.arraycopy(current.ids, position + 1, copy, position, current.size - position - 1);
+        snapshot = new Snapshot(copy, copy.length);
+    }
+
+    void trim() {
+        Snapshot current = snapshot;
+        if (current.size < current.ids.length) {
+            snapshot = new Snapshot(Arrays.copyOf(current.ids, current.size), current.size);
+        }
+    }
+
+    boolean isEmpty() {
+        return snapshot.size == 0;
+    }
+
+    static final class Snapshot {
+        private final int[] ids;
+        private final int size;
+
+        private Snapshot(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(int itemId) {
+            return Arrays.binarySearch(ids, 0, size, itemId) >= 0;
+        }
+
+        int indexAfter(int itemId) {
+            int position = Arrays.binarySearch(ids, 0, size, itemId);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "scan")
+@RequiredArgsConstructor
+public class ScanItemSearchEngine implements ItemSearchEngine {
+    private static final int SCAN_PAGE_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int afterId, int limit) {
+        String searchQuery = text.toLowerCase();
+        List<Item> items = new ArrayList<>();
+        int lastScannedId = afterId;
+        while (items.size() < limit) {
+            List<Item> page = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastScannedId, PageRequest.of(0, SCAN_PAGE_SIZE));
+            page.stream()
+                    .filter(item -> item.getName().toLowerCase().contains(searchQuery)
+                            || item.getDescription().toLowerCase().contains(searchQuery))
+                    .limit(limit - items.size())
+                    .forEach(items::add);
+            if (page.size() < SCAN_PAGE_SIZE) {
+                break;
+            }
+            lastScannedId = page.get(page.size() - 1).getId();
+        }
+        return items;
+    }
+}
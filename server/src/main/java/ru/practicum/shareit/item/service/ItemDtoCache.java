@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+@Component
+public class ItemDtoCache {
+    private final Cache<Key, Entry> itemDtos;
+
+    public ItemDtoCache(@Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${shareit.item-cache.ttl:10m}") Duration ttl) {
+        this.itemDtos = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        if (entry.getValidUntil() == null) {
+                            return ttl.toNanos();
+                        }
+                        Duration untilBoundary = Duration.between(LocalDateTime.now(), entry.getValidUntil());
+                        if (untilBoundary.isNegative()) {
+                            return 0;
+                        }
+                        return untilBoundary.compareTo(ttl) < 0 ? untilBoundary.toNanos() : ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public ItemDtoExtended get(Integer itemId, boolean isOwner, Supplier<Entry> loader) {
+        return itemDtos.get(new Key(itemId, isOwner), key -> loader.get()).getItemDto();
+    }
+
+    public void evict(Integer itemId) {
+        itemDtos.invalidate(new Key(itemId, true));
+        itemDtos.invalidate(new Key(itemId, false));
+    }
+
+    public void evictAll() {
+        itemDtos.invalidateAll();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final ItemDtoExtended itemDto;
+        private final LocalDateTime validUntil;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final Integer itemId;
+        private final boolean isOwner;
+    }
+}
@@ -7,17 +7,18 @@ import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemService {
     ItemDtoWithRequestId add(Integer userId, ItemDtoWithRequestId itemDtoWithRequestId);
 
     ItemDto update(Integer itemId, Integer userId, ItemDto itemDto);
 
-    ItemDto get(Integer itemId, Integer userId);
+    ItemDtoExtended get(Integer itemId, Integer userId);
 
     List<ItemDtoExtended> getAll(Integer userId);
 
-    List<ItemDto> search(Integer userId, String text);
+    Stream<ItemDto> search(Integer userId, String text, Integer from, Integer size, Integer after);
 
     CommentOutputDto addComment(Integer itemId, Integer userId, Comment comment);
 }
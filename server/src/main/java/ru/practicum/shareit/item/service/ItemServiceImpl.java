@@ -15,24 +15,33 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.loader.EntityLoader;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int SEARCH_CHUNK_SIZE = 100;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final EntityLoader entityLoader;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDtoCache itemDtoCache;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
@@ -40,16 +49,17 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDtoWithRequestId add(Integer userId, ItemDtoWithRequestId itemDtoWithRequestId) {
         validateItemDto(itemDtoWithRequestId);
-        validateUser(userId);
+        entityLoader.requireUser(userId);
 
         Item item = itemMapper.toItem(itemDtoWithRequestId);
 
         if (itemDtoWithRequestId.getRequestId() != null) {
-            item.setRequest(requestRepository.findById(itemDtoWithRequestId.getRequestId()).get());
+            item.setRequest(entityLoader.requestRef(itemDtoWithRequestId.getRequestId()));
         }
 
-        item.setOwner(userRepository.findById(userId).get());
+        item.setOwner(entityLoader.userRef(userId));
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
 
         ItemDtoWithRequestId itemDtoOutput = itemMapper.toItemDtoWithRequestId(item);
         itemDtoOutput.setRequestId(itemDtoWithRequestId.getRequestId());
@@ -58,15 +68,12 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto update(Integer itemId, Integer userId, ItemDto itemDto) {
-        validateItem(itemId);
-
-        if (itemId.equals(itemDto.getId())) {
-            validateUser(userId);
-        }
-
-        Item item = itemRepository.findById(itemId).get();
+        Item item = entityLoader.loadItem(itemId);
 
         if (!Objects.equals(userId, item.getOwner().getId())) {
+            if (itemId.equals(itemDto.getId())) {
+                entityLoader.requireUser(userId);
+            }
             throw new ItemAccessException("Failed to update item. Only item owners are allowed to update items.");
         }
 
@@ -83,88 +90,78 @@ public class ItemServiceImpl implements ItemService {
         }
 
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        itemDtoCache.evict(itemId);
         return itemMapper.toItemDto(item);
     }
 
     @Override
     public ItemDtoExtended get(Integer itemId, Integer userId) {
-        validateItem(itemId);
-
-        Sort sort = Sort.by("start").descending();
-
-        Item item = itemRepository.findById(itemId).get();
-        ItemDto itemDto = itemMapper.toItemDto(item);
-
-        List<CommentOutputDto> itemComments = commentRepository.findByItemId(itemId).stream()
-                .map(commentMapper::toCommentOutputDto).collect(Collectors.toList());
-
-        ItemDtoExtended itemDtoExtended = new ItemDtoExtended(itemDto, itemComments);
+        Item item = entityLoader.loadItem(itemId);
+        boolean isOwner = Objects.equals(userId, item.getOwner().getId());
 
-        if (Objects.equals(userId, item.getOwner().getId())) {
-            List<Booking> last = bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, sort);
-            if (!last.isEmpty()) {
-                Booking lastBooking = last.get(0);
-                itemDtoExtended.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking));
-            }
-
-            List<Booking> next = bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, sort.ascending());
-            if (!next.isEmpty()) {
-                Booking nextBooking = next.get(0);
-                itemDtoExtended.setNextBooking(bookingMapper.toBookingDtoShortOutput(nextBooking));
-            }
-        }
-        return itemDtoExtended;
+        return itemDtoCache.get(itemId, isOwner, () -> toItemDtoExtended(item, isOwner));
     }
 
     @Override
     public List<ItemDtoExtended> getAll(Integer userId) {
-        Sort sort = Sort.by("start").descending();
+        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(userId);
 
-        List<ItemDtoExtended> userItems = itemRepository.findByOwnerIdOrderByIdAsc(userId).stream()
-                .map(itemMapper::toItemDto)
-                .map(itemDto -> new ItemDtoExtended(itemDto, null))
-                .map(item -> {
-            List<Booking> last = bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, sort);
-            if (!last.isEmpty()) {
-                Booking lastBooking = last.get(0);
-                item.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking));
-            }
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            List<Booking> next = bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, sort.ascending());
-            if (!next.isEmpty()) {
-                Booking nextBooking = next.get(0);
-                item.setNextBooking(bookingMapper.toBookingDtoShortOutput(nextBooking));
-            }
-            return item;
-        }).collect(Collectors.toList());
+        List<Integer> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Integer, Booking> lastBookings = toBookingsByItemId(
+                bookingRepository.findLastByItemIdIn(itemIds, now, BookingStatus.REJECTED));
+        Map<Integer, Booking> nextBookings = toBookingsByItemId(
+                bookingRepository.findNextByItemIdIn(itemIds, now, BookingStatus.REJECTED));
 
-        return userItems;
+        return items.stream()
+                .map(item -> {
+                    ItemDtoExtended itemDtoExtended = new ItemDtoExtended(itemMapper.toItemDto(item), null);
+
+                    Booking lastBooking = lastBookings.get(item.getId());
+                    if (lastBooking != null) {
+                        itemDtoExtended.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking));
+                    }
+
+                    Booking nextBooking = nextBookings.get(item.getId());
+                    if (nextBooking != null) {
+                        itemDtoExtended.setNextBooking(bookingMapper.toBookingDtoShortOutput(nextBooking));
+                    }
+                    return itemDtoExtended;
+                }).collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> search(Integer userId, String text) {
+    public Stream<ItemDto> search(Integer userId, String text, Integer from, Integer size, Integer after) {
         if (text == null || text.isEmpty()) {
-            return new ArrayList<>();
+            return Stream.empty();
         }
-        String searchQuery = text.toLowerCase();
-        return itemRepository.findAll().stream()
-                .filter(Item::getAvailable)
-                .filter(item -> item.getName().toLowerCase().contains(searchQuery)
-                        || item.getDescription().toLowerCase().contains(searchQuery))
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+
+        int offset = from == null ? 0 : from;
+        int limit = size == null ? Integer.MAX_VALUE : size;
+        int chunkSize = (int) Math.max(1, Math.min(SEARCH_CHUNK_SIZE, (long) offset + limit));
+
+        return Stream.iterate(
+                        itemSearchEngine.search(text, after == null ? 0 : after, chunkSize),
+                        chunk -> !chunk.isEmpty(),
+                        chunk -> chunk.size() < chunkSize
+                                ? List.of()
+                                : itemSearchEngine.search(text, chunk.get(chunk.size() - 1).getId(), chunkSize))
+                .flatMap(List::stream)
+                .skip(offset)
+                .limit(limit)
+                .map(itemMapper::toItemDto);
     }
 
     @Override
     public CommentOutputDto addComment(Integer itemId, Integer userId, Comment commentInput) {
-        validateUser(userId);
-        validateItem(itemId);
-
-        Optional<Item> optionalItem = itemRepository.findById(itemId);
-        if ((optionalItem.isEmpty())) {
-            throw new ObjectNotFoundException("Booking with id = " + itemId + " was not found.");
-        }
-        Item item = optionalItem.get();
+        User author = entityLoader.loadUser(userId);
+        Item item = entityLoader.loadItem(itemId);
 
         Sort sort = Sort.by("start").descending();
 
@@ -180,13 +177,43 @@ public class ItemServiceImpl implements ItemService {
         }
 
         commentInput.setItem(item);
-        commentInput.setAuthor(userRepository.findById(userId).get());
+        commentInput.setAuthor(author);
 
         Comment comment = commentRepository.save(commentInput);
+        itemDtoCache.evict(itemId);
 
         return commentMapper.toCommentOutputDto(comment);
     }
 
+    private ItemDtoCache.Entry toItemDtoExtended(Item item, boolean isOwner) {
+        ItemDto itemDto = itemMapper.toItemDto(item);
+
+        List<CommentOutputDto> itemComments = commentRepository.findByItemId(item.getId()).stream()
+                .map(commentMapper::toCommentOutputDto).collect(Collectors.toList());
+
+        ItemDtoExtended itemDtoExtended = new ItemDtoExtended(itemDto, itemComments);
+
+        if (!isOwner) {
+            return new ItemDtoCache.Entry(itemDtoExtended, null);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(item.getId(), now, BookingStatus.REJECTED)
+                .ifPresent(lastBooking -> itemDtoExtended.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking)));
+
+        Optional<Booking> nextBooking = bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(item.getId(), now, BookingStatus.REJECTED);
+        nextBooking.ifPresent(booking -> itemDtoExtended.setNextBooking(bookingMapper.toBookingDtoShortOutput(booking)));
+
+        return new ItemDtoCache.Entry(itemDtoExtended, nextBooking.map(Booking::getStart).orElse(null));
+    }
+
+    private static Map<Integer, Booking> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
     private void validateItemDto(ItemDtoWithRequestId itemDtoWithRequestId) {
         if (itemDtoWithRequestId.getAvailable() == null || itemDtoWithRequestId.getName() == null || itemDtoWithRequestId.getName().isEmpty()
                 || itemDtoWithRequestId.getDescription() == null) {
@@ -199,16 +226,4 @@ public class ItemServiceImpl implements ItemService {
             }
         }
     }
-
-    private void validateUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ObjectNotFoundException("Failed to process request. User with id = " + userId + " doesn't exist.");
-        }
-    }
-
-    private void validateItem(Integer itemId) {
-        if (!itemRepository.existsById(itemId)) {
-            throw new ObjectNotFoundException("Failed to process request. Item with id = " + itemId + " doesn't exist.");
-        }
-    }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.loader;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
+
+@Component
+@RequiredArgsConstructor
+public class EntityLoader {
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+
+    public void requireUser(Integer userId) {
+        if (!userIdentityCache.exists(userId)) {
+            throw new ObjectNotFoundException("Failed to process request. User with id = " + userId + " doesn't exist.");
+        }
+    }
+
+    public User userRef(Integer userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    public User loadUser(Integer userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ObjectNotFoundException("Failed to process request. User with id = " + userId + " doesn't exist."));
+    }
+
+    public Item loadItem(Integer itemId) {
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> new ObjectNotFoundException("Failed to process request. Item with id = " + itemId + " doesn't exist."));
+    }
+
+    public Request requestRef(Integer requestId) {
+        return requestRepository.getReferenceById(requestId);
+    }
+
+    public Request loadRequest(Integer requestId) {
+        return requestRepository.findById(requestId)
+                .orElseThrow(() -> new ObjectNotFoundException("Failed to process request. Request with id = " + requestId + " doesn't exist."));
+    }
+}
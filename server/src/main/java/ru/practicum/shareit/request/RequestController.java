@@ -1,8 +1,11 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.RequestDtoInput;
 import ru.practicum.shareit.request.dto.RequestDtoOutput;
 import ru.practicum.shareit.request.dto.RequestDtoShortOutput;
@@ -25,19 +28,30 @@ public class RequestController {
 
     @GetMapping
     public ResponseEntity<List<RequestDtoOutput>> getByUser(@RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(requestService.getByUser(userId));
+        List<RequestDtoOutput> requests = requestService.getByUser(userId);
+        return ResponseEntity.ok().eTag(EntityTags.ofRequests(requests)).body(requests);
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<RequestDtoOutput>> getAll(@RequestParam(name = "from", required = false) Integer from,
                                                          @RequestParam(name = "size", required = false) Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor,
                                                          @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(requestService.getAll(from, size, userId));
+        Slice<RequestDtoOutput> requests = requestService.getAll(from, size, userId, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(EntityTags.ofRequests(requests.getContent()));
+
+        if (requests.hasNext()) {
+            RequestDtoOutput lastRequest = requests.getContent().get(requests.getNumberOfElements() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(lastRequest.getCreated(), lastRequest.getId()).encode());
+        }
+
+        return response.body(requests.getContent());
     }
 
     @GetMapping("/{requestId}")
     public ResponseEntity<RequestDtoOutput> get(@PathVariable Integer requestId,
                                                 @RequestHeader("X-Sharer-User-Id") Integer userId) {
-        return ResponseEntity.ok().body(requestService.get(requestId, userId));
+        RequestDtoOutput request = requestService.get(requestId, userId);
+        return ResponseEntity.ok().eTag(EntityTags.ofRequest(request)).body(request);
     }
 }
@@ -16,6 +16,7 @@ public class RequestDtoOutput extends RequestDtoShortOutput {
 
     public RequestDtoOutput(Request request, List<ItemDtoWithRequestId> items) {
         super(request.getId(), request.getDescription(), request.getCreated());
+        setVersion(request.getVersion());
         this.items = items;
     }
 }
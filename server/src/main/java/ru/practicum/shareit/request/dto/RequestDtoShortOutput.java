@@ -1,17 +1,25 @@
 package ru.practicum.shareit.request.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class RequestDtoShortOutput {
     private Integer id;
     private String description;
     private LocalDateTime created;
+
+    @JsonIgnore
+    private Integer version;
+
+    public RequestDtoShortOutput(Integer id, String description, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+    }
 }
 
@@ -1,9 +1,10 @@
 package ru.practicum.shareit.request.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -11,14 +12,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Request {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Integer id;
 
     private String description;
@@ -28,4 +31,14 @@ public class Request {
     @ManyToOne
     @JoinColumn(name = "requesting_user_id")
     private User requestingUser;
+
+    @Version
+    private Integer version;
+
+    public Request(Integer id, String description, LocalDateTime created, User requestingUser) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+        this.requestingUser = requestingUser;
+    }
 }
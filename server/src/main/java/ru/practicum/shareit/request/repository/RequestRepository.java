@@ -1,13 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Integer> {
 
     List<Request> findByRequestingUserIdOrderByCreatedDesc(Integer id);
 
-    List<Request> findByRequestingUserIdNotOrderByCreatedDesc(Integer id);
+    Slice<Request> findByRequestingUserIdNot(Integer id, Pageable pageable);
+
+    @Query("select r from Request r where r.requestingUser.id <> :userId" +
+            " and (r.created < :cursorCreated or (r.created = :cursorCreated and r.id < :cursorId)) " +
+            "order by r.created desc, r.id desc")
+    Slice<Request> findByRequestingUserIdNotSeek(@Param("userId") Integer userId,
+                                                 @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                 @Param("cursorId") Integer cursorId,
+                                                 Pageable pageable);
 }
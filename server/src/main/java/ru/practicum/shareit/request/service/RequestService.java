@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.dto.RequestDtoInput;
 import ru.practicum.shareit.request.dto.RequestDtoOutput;
 import ru.practicum.shareit.request.dto.RequestDtoShortOutput;
@@ -11,7 +12,7 @@ public interface RequestService {
 
     List<RequestDtoOutput> getByUser(Integer userId);
 
-    List<RequestDtoOutput> getAll(Integer from, Integer size, Integer userId);
+    Slice<RequestDtoOutput> getAll(Integer from, Integer size, Integer userId, String cursor);
 
     RequestDtoOutput get(Integer requestId, Integer userId);
 }
@@ -1,41 +1,50 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.DtoIntegrityException;
-import ru.practicum.shareit.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoWithRequestId;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.loader.EntityLoader;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.RequestDtoInput;
 import ru.practicum.shareit.request.dto.RequestDtoOutput;
 import ru.practicum.shareit.request.dto.RequestDtoShortOutput;
 import ru.practicum.shareit.request.dto.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
+    private static final Sort SORT = Sort.by("created", "id").descending();
+    private static final int MAX_SLICE_SIZE = Integer.MAX_VALUE - 1;
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final EntityLoader entityLoader;
     private final RequestMapper requestMapper;
 
     @Override
     public RequestDtoShortOutput add(RequestDtoInput requestDtoInput, Integer userId) {
-        validateUser(userId);
+        entityLoader.requireUser(userId);
         validateItemRequestDtoInput(requestDtoInput);
 
         Request request = requestMapper.toRequest(requestDtoInput);
 
-        request.setRequestingUser(userRepository.findById(userId).get());
+        request.setRequestingUser(entityLoader.userRef(userId));
 
         request = requestRepository.save(request);
 
@@ -44,36 +53,35 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public List<RequestDtoOutput> getByUser(Integer userId) {
-        validateUser(userId);
+        entityLoader.requireUser(userId);
         List<Request> requests = requestRepository.findByRequestingUserIdOrderByCreatedDesc(userId);
-        List<RequestDtoOutput> itemRequestOutput = requests.stream()
-                .map(requestMapper::toRequestDtoOutput)
-                .collect(Collectors.toList());
-
-        itemRequestOutput.forEach(itemRequest -> itemRequest.setItems(findItemsByRequestId(itemRequest.getId())));
-        return itemRequestOutput;
+        return toRequestDtoOutputsWithItems(requests);
     }
 
     @Override
-    public List<RequestDtoOutput> getAll(Integer from, Integer size, Integer userId) {
-        validateUser(userId);
-
-        List<Request> requests = requestRepository.findByRequestingUserIdNotOrderByCreatedDesc(userId);
-        List<RequestDtoOutput> itemRequestOutput = requests.stream()
-                .map(requestMapper::toRequestDtoOutput)
-                .collect(Collectors.toList());
-
-        itemRequestOutput.forEach(itemRequest -> itemRequest.setItems(findItemsByRequestId(itemRequest.getId())));
+    public Slice<RequestDtoOutput> getAll(Integer from, Integer size, Integer userId, String cursor) {
+        entityLoader.requireUser(userId);
+
+        int pageSize = size == null ? MAX_SLICE_SIZE : Math.min(size, MAX_SLICE_SIZE);
+        Slice<Request> requests;
+
+        if (cursor != null) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            requests = requestRepository.findByRequestingUserIdNotSeek(userId, keysetCursor.getTimestamp(), keysetCursor.getId(),
+                    PageRequest.ofSize(pageSize));
+        } else {
+            int offset = from == null ? 0 : from;
+            requests = requestRepository.findByRequestingUserIdNot(userId, PageRequest.of(offset / pageSize, pageSize, SORT));
+        }
 
-        return itemRequestOutput;
+        return new SliceImpl<>(toRequestDtoOutputsWithItems(requests.getContent()), requests.getPageable(), requests.hasNext());
     }
 
     @Override
     public RequestDtoOutput get(Integer requestId, Integer userId) {
-        validateUser(userId);
-        validateRequest(requestId);
+        entityLoader.requireUser(userId);
 
-        Request request = requestRepository.findById(requestId).get();
+        Request request = entityLoader.loadRequest(requestId);
         RequestDtoOutput itemRequestOutput = requestMapper.toRequestDtoOutput(request);
 
         itemRequestOutput.setItems(findItemsByRequestId(requestId));
@@ -81,6 +89,26 @@ public class RequestServiceImpl implements RequestService {
         return itemRequestOutput;
     }
 
+    private List<RequestDtoOutput> toRequestDtoOutputsWithItems(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> requestIds = requests.stream().map(Request::getId).collect(Collectors.toList());
+        Map<Integer, List<ItemDtoWithRequestId>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(item -> new ItemDtoWithRequestId(itemMapper.toItemDto(item), item.getRequest().getId()),
+                                Collectors.toList())));
+
+        return requests.stream()
+                .map(request -> {
+                    RequestDtoOutput itemRequestOutput = requestMapper.toRequestDtoOutput(request);
+                    itemRequestOutput.setItems(itemsByRequestId.getOrDefault(request.getId(), new ArrayList<>()));
+                    return itemRequestOutput;
+                })
+                .collect(Collectors.toList());
+    }
+
     private List<ItemDtoWithRequestId> findItemsByRequestId(Integer requestId) {
         List<Item> items = itemRepository.findByRequestId(requestId);
         return items.stream()
@@ -94,16 +122,4 @@ public class RequestServiceImpl implements RequestService {
             throw new DtoIntegrityException("Failed to process request. Item request description must not be null or empty.");
         }
     }
-
-    private void validateUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ObjectNotFoundException("Failed to process request. User with id = " + userId + " doesn't exist.");
-        }
-    }
-
-    private void validateRequest(Integer requestId) {
-        if (!requestRepository.existsById(requestId)) {
-            throw new ObjectNotFoundException("Failed to process request. User with id = " + requestId + " doesn't exist.");
-        }
-    }
 }
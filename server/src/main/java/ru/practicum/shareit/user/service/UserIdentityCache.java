@@ -0,0 +1,42 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+@Component
+public class UserIdentityCache {
+    private final UserRepository userRepository;
+
+    private final Cache<Integer, Boolean> knownUserIds;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${shareit.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.knownUserIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean exists(Integer userId) {
+        if (knownUserIds.getIfPresent(userId) != null) {
+            return true;
+        }
+
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            knownUserIds.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void evict(Integer userId) {
+        knownUserIds.invalidate(userId);
+    }
+}
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.DtoIntegrityException;
 import ru.practicum.shareit.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.exceptions.UserEmailAlreadyExistsException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemDtoCache;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Objects;
@@ -23,10 +30,20 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final UserIdentityCache userIdentityCache;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ItemDtoCache itemDtoCache;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemSearchEngine itemSearchEngine;
+
     public UserDto add(@Valid UserDto userDto) {
         validateUserDto(userDto);
         User user = userMapper.toUser(userDto);
-        user = userRepository.save(user);
+        user = saveUser(user, "Failed to add user. User with email " + userDto.getEmail() + " already exists.");
         return userMapper.toUserDto(user);
     }
 
@@ -36,7 +53,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId).get();
 
         if (userDto.getEmail() != null) {
-            if (!Objects.equals(userDto.getEmail(), user.getEmail()) && userWithEmailExists(userDto.getEmail())) {
+            if (!Objects.equals(userDto.getEmail(), user.getEmail()) && userRepository.existsByEmailAndIdNot(userDto.getEmail(), userId)) {
                 throw new UserEmailAlreadyExistsException("Failed to update user. User with email " + userDto.getEmail() + " already exists.");
             }
             user.setEmail(userDto.getEmail());
@@ -46,7 +63,8 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
         }
 
-        user = userRepository.save(user);
+        user = saveUser(user, "Failed to update user. User with email " + userDto.getEmail() + " already exists.");
+        itemDtoCache.evictAll();
 
         return userMapper.toUserDto(user);
     }
@@ -59,7 +77,13 @@ public class UserServiceImpl implements UserService {
 
     public void delete(int id) {
         validateUserById(id);
+        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(id);
         userRepository.deleteById(id);
+        items.forEach(item -> itemSearchEngine.remove(item.getId()));
+        userIdentityCache.evict(id);
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(Request.class);
+        itemDtoCache.evictAll();
     }
 
     public List<UserDto> getAll() {
@@ -79,7 +103,11 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private boolean userWithEmailExists(String email) {
-        return userRepository.findAll().stream().map(User::getEmail).anyMatch(email::equals);
+    private User saveUser(User user, String emailConflictMessage) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException exception) {
+            throw new UserEmailAlreadyExistsException(emailConflictMessage);
+        }
     }
 }
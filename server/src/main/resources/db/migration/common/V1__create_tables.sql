@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, items, requests, bookings, comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     name varchar(255) NOT NULL,
@@ -38,4 +36,4 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id integer REFERENCES items(id) ON DELETE CASCADE,
     author_id integer REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
@@ -0,0 +1,5 @@
+ALTER TABLE items ADD COLUMN version integer NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN version integer NOT NULL DEFAULT 0;
+
+ALTER TABLE requests ADD COLUMN version integer NOT NULL DEFAULT 0;
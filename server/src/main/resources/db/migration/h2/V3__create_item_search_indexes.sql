@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS IDX_ITEM_AVAILABLE ON items (is_available, id);
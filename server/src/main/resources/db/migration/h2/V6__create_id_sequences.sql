@@ -0,0 +1,5 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH ${id_allocation_size} INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH ${id_allocation_size} INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH ${id_allocation_size} INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH ${id_allocation_size} INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH ${id_allocation_size} INCREMENT BY ${id_allocation_size};
@@ -0,0 +1,5 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_ITEM_OWNER ON items (owner_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_BOOKING_ITEM_START ON bookings (item_id, start_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_BOOKING_ITEM_STATUS_START ON bookings (item_id, status, start_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_BOOKING_BOOKER_START ON bookings (booker_id, start_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_BOOKING_BOOKER_STATUS_START ON bookings (booker_id, status, start_time);
@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_ITEM_NAME_TRGM ON items USING gin (lower(name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_ITEM_DESCRIPTION_TRGM ON items USING gin (lower(description) gin_trgm_ops) WHERE is_available;
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_REQUEST_USER_CREATED ON requests (requesting_user_id, created);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_REQUEST_CREATED ON requests (created, id);
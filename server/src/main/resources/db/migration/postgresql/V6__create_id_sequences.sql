@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) FROM users) + ${id_allocation_size}, false);
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('requests_seq', (SELECT COALESCE(MAX(id), 0) FROM requests) + ${id_allocation_size}, false);
+
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) FROM items) + ${id_allocation_size}, false);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) FROM bookings) + ${id_allocation_size}, false);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) FROM comments) + ${id_allocation_size}, false);
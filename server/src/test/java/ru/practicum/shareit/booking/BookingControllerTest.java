@@ -7,14 +7,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -23,6 +29,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,6 +78,29 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).add(any(), any());
     }
 
+    @Test
+    void addAll_shouldReturnResultPerEntry() throws Exception {
+        List<BookingBulkResult> results = List.of(
+                BookingBulkResult.succeeded(0, bookingDtoOutput),
+                BookingBulkResult.failed(1, 404, "Failed to process request. Item with id = 99 doesn't exist.")
+        );
+
+        when(bookingService.addAll(any(), any())).thenReturn(results);
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .content(mapper.writeValueAsString(List.of(bookingDtoInput, bookingDtoInput)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDtoOutput.getId()), Integer.class))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].index", is(1)));
+
+        verify(bookingService, times(1)).addAll(any(), any());
+    }
+
     @Test
     void setApprove_shouldReturnStatusOk() throws Exception {
         when(bookingService.setApprove(any(), any(), any())).thenReturn(bookingDtoOutput);
@@ -83,6 +114,29 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).setApprove(any(), any(), any());
     }
 
+    @Test
+    void setApproveAll_shouldReturnResultPerEntry() throws Exception {
+        List<BookingBulkResult> results = List.of(
+                BookingBulkResult.succeeded(0, bookingDtoOutput),
+                BookingBulkResult.failed(1, 400, "Booking status must be 'WAITING'.")
+        );
+
+        when(bookingService.setApproveAll(any(), any(), any())).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .param("approved", String.valueOf(true))
+                        .content(mapper.writeValueAsString(List.of(1, 2)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].index", is(1)));
+
+        verify(bookingService, times(1)).setApproveAll(1, List.of(1, 2), true);
+    }
+
     @Test
     void get_shouldReturnStatusOk() throws Exception {
         when(bookingService.get(any(), any())).thenReturn(bookingDtoOutput);
@@ -95,9 +149,35 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).get(any(), any());
     }
 
+    @Test
+    void get_shouldReturnStatusNotModified_whenETagMatches() throws Exception {
+        when(bookingService.get(any(), any())).thenReturn(bookingDtoOutput);
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + EntityTags.ofBooking(bookingDtoOutput) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void get_shouldReturnStatusOk_whenBookingStatusChangedSinceETag() throws Exception {
+        String previousETag = "\"" + EntityTags.ofBooking(bookingDtoOutput) + "\"";
+        bookingDtoOutput.setStatus(BookingStatus.APPROVED);
+        bookingDtoOutput.setVersion(1);
+
+        when(bookingService.get(any(), any())).thenReturn(bookingDtoOutput);
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, previousETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + EntityTags.ofBooking(bookingDtoOutput) + "\""));
+    }
+
     @Test
     void getAll_shouldReturnStatusOk() throws Exception {
-        when(bookingService.getAll(any(), any(), any(), any())).thenReturn(List.of(bookingDtoOutput));
+        when(bookingService.getAll(any(), any(), any(), any(), any())).thenReturn(new SliceImpl<>(List.of(bookingDtoOutput)));
 
         mockMvc.perform(get("/bookings")
                         .param("state", "ALL")
@@ -105,14 +185,32 @@ public class BookingControllerTest {
                         .param("size", String.valueOf(1))
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.[0].id", is(bookingDtoOutput.getId()), Integer.class));
+                .andExpect(jsonPath("$.[0].id", is(bookingDtoOutput.getId()), Integer.class))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+
+        verify(bookingService, times(1)).getAll(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldReturnNextCursor_whenSliceHasNext() throws Exception {
+        String cursor = new KeysetCursor(LocalDateTime.now(), 10).encode();
+        when(bookingService.getAll("ALL", 1, null, 1, cursor))
+                .thenReturn(new SliceImpl<>(List.of(bookingDtoOutput), PageRequest.ofSize(1), true));
 
-        verify(bookingService, times(1)).getAll(any(), any(), any(), any());
+        mockMvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(1))
+                        .param("cursor", cursor)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(bookingDtoOutput.getId()), Integer.class))
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(bookingDtoOutput.getStart(), bookingDtoOutput.getId()).encode()));
     }
 
     @Test
     void getAllByOwner_shouldReturnStatusOk() throws Exception {
-        when(bookingService.getAllByOwner(any(), any(), any(), any())).thenReturn(List.of(bookingDtoOutput));
+        when(bookingService.getAllByOwner(any(), any(), any(), any(), any())).thenReturn(new SliceImpl<>(List.of(bookingDtoOutput)));
 
         mockMvc.perform(get("/bookings/owner")
                         .param("state", "ALL")
@@ -121,6 +219,6 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].id", is(bookingDtoOutput.getId()), Integer.class));
-        verify(bookingService, times(1)).getAllByOwner(any(), any(), any(), any());
+        verify(bookingService, times(1)).getAllByOwner(any(), any(), any(), any(), any());
     }
 }
\ No newline at end of file
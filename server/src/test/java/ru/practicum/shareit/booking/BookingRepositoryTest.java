@@ -1,13 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -17,11 +23,16 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class BookingRepositoryTest {
 
     @Autowired
@@ -33,6 +44,12 @@ public class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Item item;
     private User user;
 
@@ -52,7 +69,7 @@ public class BookingRepositoryTest {
     @Test
     void findByBooker_Id() {
         Booking booking = addBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), user, item, BookingStatus.CANCELED);
-        Page<Booking> bookingPageSaved = bookingRepository.findByBookerId(user.getId(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByBookerId(user.getId(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -67,7 +84,7 @@ public class BookingRepositoryTest {
     @Test
     void findByBooker_IdAndStartIsAfter() {
         addBooking(LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(6), user, item, BookingStatus.CANCELED);
-        Page<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStartIsAfter(user.getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStartIsAfter(user.getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -81,7 +98,7 @@ public class BookingRepositoryTest {
     @Test
     void findByBooker_IdAndEndIsBefore() {
         addBooking(LocalDateTime.now().minusDays(6), LocalDateTime.now().minusDays(4), user, item, BookingStatus.CANCELED);
-        Page<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndEndIsBefore(user.getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndEndIsBefore(user.getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -95,7 +112,7 @@ public class BookingRepositoryTest {
     @Test
     void findByBooker_IdAndStatus() {
         Booking booking = addBooking(LocalDateTime.now().minusDays(6), LocalDateTime.now().minusDays(4), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -110,7 +127,7 @@ public class BookingRepositoryTest {
     @Test
     void findByBooker_IdAndStartIsBeforeAndEndIsAfter() {
         Booking booking = addBooking(LocalDateTime.now().minusDays(6), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(user.getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(user.getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -128,7 +145,7 @@ public class BookingRepositoryTest {
         item.setOwner(userRepository.findById(user.getId()).get());
 
         addBooking(LocalDateTime.now().minusDays(6), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByItemOwnerId(item.getOwner().getId(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByItemOwnerId(item.getOwner().getId(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -147,7 +164,7 @@ public class BookingRepositoryTest {
         item.setOwner(userRepository.findById(user.getId()).get());
 
         addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStartIsAfter(item.getOwner().getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStartIsAfter(item.getOwner().getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -167,7 +184,7 @@ public class BookingRepositoryTest {
         item.setOwner(userRepository.findById(user.getId()).get());
 
         addBooking(LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(2), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndEndIsBefore(item.getOwner().getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndEndIsBefore(item.getOwner().getId(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -187,7 +204,7 @@ public class BookingRepositoryTest {
         item.setOwner(userRepository.findById(user.getId()).get());
 
         addBooking(LocalDateTime.now().minusDays(6), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStatus(item.getOwner().getId(), BookingStatus.WAITING, PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStatus(item.getOwner().getId(), BookingStatus.WAITING, PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -207,7 +224,7 @@ public class BookingRepositoryTest {
         item.setOwner(userRepository.findById(user.getId()).get());
 
         addBooking(LocalDateTime.now().minusDays(4), LocalDateTime.now().plusDays(2), user, item, BookingStatus.WAITING);
-        Page<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(item.getOwner().getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
+        Slice<Booking> bookingPageSaved = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(item.getOwner().getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 1, Sort.unsorted()));
 
         assertNotNull(bookingPageSaved);
         assertEquals(1, bookingPageSaved.getSize());
@@ -224,35 +241,192 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findByItemIdAndStartIsAfterAndStatusNot() {
-        addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        List<Booking> bookingPageSaved = bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, Sort.unsorted());
+    void findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc() {
+        addBooking(LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(5), user, item, BookingStatus.WAITING);
+        Booking nearest = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), user, item, BookingStatus.WAITING);
+        addBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), user, item, BookingStatus.REJECTED);
+        Optional<Booking> bookingSaved = bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED);
+
+        assertTrue(bookingSaved.isPresent());
+        assertEquals(nearest.getId(), bookingSaved.get().getId());
+        assertEquals(item.getId(), bookingSaved.get().getItem().getId());
+        assertTrue(bookingSaved.get().getStart().isAfter(LocalDateTime.now()));
+        assertNotEquals(bookingSaved.get().getStatus(), BookingStatus.REJECTED);
+    }
 
-        assertNotNull(bookingPageSaved);
-        assertEquals(1, bookingPageSaved.size());
+    @Test
+    void findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc() {
+        addBooking(LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(3), user, item, BookingStatus.APPROVED);
+        Booking nearest = addBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
+        addBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), user, item, BookingStatus.REJECTED);
+        Optional<Booking> bookingSaved = bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED);
+
+        assertTrue(bookingSaved.isPresent());
+        assertEquals(nearest.getId(), bookingSaved.get().getId());
+        assertEquals(item.getId(), bookingSaved.get().getItem().getId());
+        assertTrue(bookingSaved.get().getStart().isBefore(LocalDateTime.now()));
+        assertNotEquals(bookingSaved.get().getStatus(), BookingStatus.REJECTED);
+    }
 
-        Booking bookingSaved = bookingPageSaved.get(0);
+    @Test
+    void findByBookerIdSeek() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = addBooking(start, start.plusDays(1), user, item, BookingStatus.APPROVED);
+        Booking second = addBooking(start, start.plusDays(1), user, item, BookingStatus.APPROVED);
+        Booking older = addBooking(start.minusDays(1), start, user, item, BookingStatus.APPROVED);
+        addBooking(start.plusDays(1), start.plusDays(2), user, item, BookingStatus.APPROVED);
 
-        assertNotNull(bookingSaved);
-        assertEquals(item.getId(), bookingSaved.getItem().getId());
-        assertTrue(bookingSaved.getStart().isAfter(LocalDateTime.now()));
-        assertNotEquals(bookingSaved.getStatus(), BookingStatus.REJECTED);
+        Slice<Booking> bookingSliceFound = bookingRepository.findByBookerIdSeek(user.getId(), start, second.getId(), PageRequest.ofSize(1));
+
+        assertEquals(1, bookingSliceFound.getNumberOfElements());
+        assertEquals(first.getId(), bookingSliceFound.getContent().get(0).getId());
+        assertTrue(bookingSliceFound.hasNext());
+
+        bookingSliceFound = bookingRepository.findByBookerIdSeek(user.getId(), start, first.getId(), PageRequest.ofSize(1));
+
+        assertEquals(older.getId(), bookingSliceFound.getContent().get(0).getId());
+        assertFalse(bookingSliceFound.hasNext());
     }
 
     @Test
-    void findByItemIdAndStartIsBeforeAndStatusNot() {
-        addBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(4), user, item, BookingStatus.WAITING);
-        List<Booking> bookingPageSaved = bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, Sort.unsorted());
+    void findByItemOwnerIdAndStatusSeek() {
+        User owner = addUser("Shaun", "shaun@ya.ru");
+        Item ownedItem = addItem("Matryoshka", "A set of 5 dolls", true, owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking later = addBooking(start.plusDays(1), start.plusDays(2), user, ownedItem, BookingStatus.WAITING);
+        Booking waiting = addBooking(start, start.plusDays(1), user, ownedItem, BookingStatus.WAITING);
+        addBooking(start.minusDays(1), start, user, ownedItem, BookingStatus.APPROVED);
+
+        Slice<Booking> bookingSliceFound = bookingRepository.findByItemOwnerIdAndStatusSeek(owner.getId(), BookingStatus.WAITING,
+                start.plusDays(1), later.getId(), PageRequest.ofSize(10));
+
+        assertEquals(1, bookingSliceFound.getNumberOfElements());
+        assertEquals(waiting.getId(), bookingSliceFound.getContent().get(0).getId());
+    }
 
-        assertNotNull(bookingPageSaved);
-        assertEquals(1, bookingPageSaved.size());
+    @Test
+    void findByItemOwnerId_shouldLoadPageWithItemsAndBookersInSingleStatement() {
+        User owner = addUser("Shaun", "shaun@ya.ru");
+        for (int i = 0; i < 5; i++) {
+            Item ownedItem = addItem("Item " + i, "Description " + i, true, owner);
+            for (int j = 0; j < 10; j++) {
+                User booker = addUser("Booker " + i + "-" + j, "booker" + i + "-" + j + "@ya.ru");
+                addBooking(LocalDateTime.now().minusDays(j + 1), LocalDateTime.now().plusDays(j), booker, ownedItem, BookingStatus.APPROVED);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDtoOutput> bookingsFound = bookingRepository
+                .findByItemOwnerId(owner.getId(), PageRequest.of(0, 50, Sort.by("start", "id").descending()))
+                .map(BookingMapper.INSTANCE::toBookingDtoOutput)
+                .getContent();
+
+        assertEquals(50, bookingsFound.size());
+        assertTrue(bookingsFound.stream().allMatch(booking -> booking.getItem().getName() != null
+                && booking.getBooker().getEmail() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
 
-        Booking bookingSaved = bookingPageSaved.get(0);
+    @Test
+    void findLastByItemIdInAndFindNextByItemIdIn() {
+        Item otherItem = addItem("Matryoshka", "A set of 5 dolls", true, user);
+        Item notBookedItem = addItem("Samovar", "Old brass samovar", true, user);
 
-        assertNotNull(bookingSaved);
-        assertEquals(item.getId(), bookingSaved.getItem().getId());
-        assertTrue(bookingSaved.getStart().isBefore(LocalDateTime.now()));
-        assertNotEquals(bookingSaved.getStatus(), BookingStatus.REJECTED);
+        addBooking(LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4), user, item, BookingStatus.APPROVED);
+        Booking itemLast = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), user, item, BookingStatus.APPROVED);
+        addBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), user, item, BookingStatus.REJECTED);
+        Booking itemNext = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), user, item, BookingStatus.WAITING);
+        addBooking(LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(5), user, item, BookingStatus.APPROVED);
+        Booking otherItemLast = addBooking(LocalDateTime.now().minusDays(7), LocalDateTime.now().minusDays(6), user, otherItem, BookingStatus.APPROVED);
+
+        List<Integer> itemIds = List.of(item.getId(), otherItem.getId(), notBookedItem.getId());
+
+        List<Booking> lastBookings = bookingRepository.findLastByItemIdIn(itemIds, LocalDateTime.now(), BookingStatus.REJECTED);
+        List<Booking> nextBookings = bookingRepository.findNextByItemIdIn(itemIds, LocalDateTime.now(), BookingStatus.REJECTED);
+
+        assertEquals(2, lastBookings.size());
+        assertTrue(lastBookings.stream().anyMatch(booking -> booking.getId().equals(itemLast.getId())));
+        assertTrue(lastBookings.stream().anyMatch(booking -> booking.getId().equals(otherItemLast.getId())));
+
+        assertEquals(1, nextBookings.size());
+        assertEquals(itemNext.getId(), nextBookings.get(0).getId());
+    }
+
+    @Test
+    void updateStatusByItemOwnerId_shouldUpdateOnlyOwnersWaitingBookings() {
+        User owner = addUser("Owner", "owner@ya.ru");
+        User otherOwner = addUser("Other owner", "other.owner@ya.ru");
+        Item ownerItem = addItem("Matryoshka", "A set of 5 dolls", true, owner);
+        Item otherOwnerItem = addItem("Samovar", "Old brass samovar", true, otherOwner);
+
+        Booking waiting = addBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), user, ownerItem, BookingStatus.WAITING);
+        Booking rejected = addBooking(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), user, ownerItem, BookingStatus.REJECTED);
+        Booking foreign = addBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), user, otherOwnerItem, BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = bookingRepository.updateStatusByItemOwnerId(List.of(waiting.getId(), rejected.getId(), foreign.getId()),
+                owner.getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        Booking waitingUpdated = bookingRepository.findById(waiting.getId()).orElseThrow();
+        assertEquals(BookingStatus.APPROVED, waitingUpdated.getStatus());
+        assertEquals(waiting.getVersion() + 1, waitingUpdated.getVersion());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findByIdIn_shouldReadStatusWrittenByUpdate_whenUpdateWasPartial() {
+        User owner = addUser("Owner", "owner@ya.ru");
+        Item ownerItem = addItem("Matryoshka", "A set of 5 dolls", true, owner);
+        Booking first = addBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), user, ownerItem, BookingStatus.WAITING);
+        Booking second = addBooking(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), user, ownerItem, BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> bookingIds = List.of(first.getId(), second.getId());
+        bookingRepository.findByIdIn(bookingIds);
+        jdbcTemplate.update("update bookings set status = ? where id = ?", BookingStatus.CANCELED.name(), second.getId());
+
+        int updated = bookingRepository.updateStatusByItemOwnerId(bookingIds, owner.getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
+        Map<Integer, BookingStatus> statuses = bookingRepository.findByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Booking::getStatus));
+
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.APPROVED, statuses.get(first.getId()));
+        assertEquals(BookingStatus.CANCELED, statuses.get(second.getId()));
+    }
+
+    @Test
+    void saveAll_shouldBatchInserts() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Booking booking = new Booking();
+            booking.setStart(LocalDateTime.now().plusDays(i + 1));
+            booking.setEnd(LocalDateTime.now().plusDays(i + 2));
+            booking.setBooker(user);
+            booking.setItem(item);
+            booking.setStatus(BookingStatus.WAITING);
+            bookings.add(booking);
+        }
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+
+        assertEquals(100, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10);
     }
 
     private Item addItem(String name, String description, boolean available, User owner) {
@@ -3,14 +3,17 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingMapperImpl;
@@ -18,27 +21,36 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.DtoIntegrityException;
 import ru.practicum.shareit.exceptions.IllegalItemBookingException;
 import ru.practicum.shareit.exceptions.IllegalSearchModeException;
 import ru.practicum.shareit.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.exceptions.UnavailableItemBookingException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemDtoCache;
+import ru.practicum.shareit.loader.EntityLoader;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource(properties = {"db.name=test"})
 public class BookingServiceTest {
 
-    @InjectMocks
     private BookingServiceImpl bookingService;
 
     @Mock
@@ -47,9 +59,18 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    @Mock
+    private ItemDtoCache itemDtoCache;
+
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private RequestRepository requestRepository;
+
     @Spy
     private BookingMapperImpl bookingMapper;
 
@@ -60,6 +81,9 @@ public class BookingServiceTest {
 
     @BeforeEach
     void setup() {
+        bookingService = new BookingServiceImpl(bookingRepository, bookingMapper,
+                new EntityLoader(userRepository, userIdentityCache, itemRepository, requestRepository), itemRepository, itemDtoCache);
+
         user = new User(1, "Jason", "jason@ya.ru");
         item = new Item(1, "Balalaika", "Brand new balalaika", true, user, null);
         userBooker = new User(2, "Shaun", "shaun@ya.ru");
@@ -71,12 +95,6 @@ public class BookingServiceTest {
         Integer bookerId = userBooker.getId();
         BookingDtoInput bookingDtoInput = new BookingDtoInput(userBooker.getId(), item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2));
 
-        Mockito.when(userRepository.existsById(bookerId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(bookingDtoInput.getItemId()))
-                .thenReturn(true);
-
         Mockito.when(itemRepository.findById(bookingDtoInput.getItemId()))
                 .thenReturn(Optional.ofNullable(item));
 
@@ -90,6 +108,10 @@ public class BookingServiceTest {
         BookingDtoOutput bookingDtoOutputSaved = bookingService.add(bookerId, bookingDtoInput);
 
         assertNotNull(bookingDtoOutputSaved);
+
+        verify(userRepository, never()).existsById(any());
+        verify(itemRepository, never()).existsById(any());
+        verify(itemDtoCache).evict(item.getId());
     }
 
     @Test
@@ -99,11 +121,8 @@ public class BookingServiceTest {
         Integer bookerId = userBooker.getId();
         BookingDtoInput bookingDtoInput = new BookingDtoInput(userBooker.getId(), item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2));
 
-        Mockito.when(userRepository.existsById(bookerId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(bookingDtoInput.getItemId()))
-                .thenReturn(true);
+        Mockito.when(userRepository.findById(bookerId))
+                .thenReturn(Optional.ofNullable(userBooker));
 
         Mockito.when(itemRepository.findById(bookingDtoInput.getItemId()))
                 .thenReturn(Optional.ofNullable(item));
@@ -118,11 +137,8 @@ public class BookingServiceTest {
         Integer bookerId = userBooker.getId();
         BookingDtoInput bookingDtoInput = new BookingDtoInput(userBooker.getId(), item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2));
 
-        Mockito.when(userRepository.existsById(bookerId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(bookingDtoInput.getItemId()))
-                .thenReturn(true);
+        Mockito.when(userRepository.findById(bookerId))
+                .thenReturn(Optional.ofNullable(userBooker));
 
         Mockito.when(itemRepository.findById(bookingDtoInput.getItemId()))
                 .thenReturn(Optional.ofNullable(item));
@@ -135,11 +151,8 @@ public class BookingServiceTest {
         Integer bookerId = userBooker.getId();
         BookingDtoInput bookingDtoInput = new BookingDtoInput(userBooker.getId(), item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2));
 
-        Mockito.when(userRepository.existsById(bookerId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(bookingDtoInput.getItemId()))
-                .thenReturn(true);
+        Mockito.when(userRepository.findById(bookerId))
+                .thenReturn(Optional.ofNullable(userBooker));
 
         Mockito.when(itemRepository.findById(bookingDtoInput.getItemId()))
                 .thenReturn(Optional.empty());
@@ -147,6 +160,63 @@ public class BookingServiceTest {
         assertThrows(ObjectNotFoundException.class, () -> bookingService.add(bookerId, bookingDtoInput));
     }
 
+    @Test
+    void add_throwsObjectNotFoundException_whenBookerDoesNotExist() {
+        Integer bookerId = userBooker.getId();
+        BookingDtoInput bookingDtoInput = new BookingDtoInput(userBooker.getId(), item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2));
+
+        Mockito.when(userRepository.findById(bookerId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.add(bookerId, bookingDtoInput));
+
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void addAll_shouldReturnResultPerEntry() {
+        Item ownItem = new Item(2, "Guitar", "Old guitar", true, userBooker, null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+        List<BookingDtoInput> bookingDtoInputs = List.of(
+                new BookingDtoInput(null, item.getId(), start, end),
+                new BookingDtoInput(null, 99, start, end),
+                new BookingDtoInput(null, ownItem.getId(), start, end),
+                new BookingDtoInput(null, item.getId(), end, start)
+        );
+
+        Mockito.when(userRepository.findById(userBooker.getId()))
+                .thenReturn(Optional.of(userBooker));
+
+        Mockito.when(itemRepository.findAllById(any()))
+                .thenReturn(List.of(item, ownItem));
+
+        Mockito.when(bookingRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingBulkResult> results = bookingService.addAll(userBooker.getId(), bookingDtoInputs);
+
+        assertEquals(4, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(item.getId(), results.get(0).getBooking().getItem().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(400, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+        assertNull(results.get(3).getBooking());
+
+        verify(itemRepository, never()).findById(any());
+        verify(itemDtoCache).evict(item.getId());
+    }
+
+    @Test
+    void addAll_throwsDtoIntegrityException_whenBatchIsEmpty() {
+        assertThrows(DtoIntegrityException.class, () -> bookingService.addAll(userBooker.getId(), List.of()));
+
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
     @Test
     void setApprove_shouldReturnBookingDtoOutput() {
         booking = new Booking(1, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2), item, userBooker, BookingStatus.WAITING);
@@ -155,12 +225,6 @@ public class BookingServiceTest {
         Integer userId = user.getId();
         boolean isApproved = true;
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
         Mockito.when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.ofNullable(booking));
 
@@ -170,6 +234,73 @@ public class BookingServiceTest {
         BookingDtoOutput bookingDtoOutputSaved = bookingService.setApprove(bookingId, userId, isApproved);
 
         assertNotNull(bookingDtoOutputSaved);
+        verify(itemDtoCache).evict(item.getId());
+    }
+
+    @Test
+    void setApproveAll_shouldUpdateWaitingBookingsWithSingleStatement() {
+        Item foreignItem = new Item(2, "Guitar", "Old guitar", true, userBooker, null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+        Booking waiting = new Booking(1, start, end, item, userBooker, BookingStatus.WAITING);
+        Booking approved = new Booking(2, start, end, item, userBooker, BookingStatus.APPROVED);
+        Booking foreign = new Booking(3, start, end, foreignItem, user, BookingStatus.WAITING);
+
+        Mockito.when(userIdentityCache.exists(user.getId()))
+                .thenReturn(true);
+
+        Mockito.when(bookingRepository.findByIdIn(any()))
+                .thenReturn(List.of(waiting, approved, foreign));
+
+        Mockito.when(bookingRepository.updateStatusByItemOwnerId(Set.of(waiting.getId()), user.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+
+        List<BookingBulkResult> results = bookingService.setApproveAll(user.getId(), List.of(1, 2, 3, 99), true);
+
+        assertEquals(4, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+
+        verify(bookingRepository, times(1)).findByIdIn(any());
+        verify(bookingRepository, never()).save(any());
+        verify(itemDtoCache).evict(item.getId());
+        verify(itemDtoCache, never()).evict(foreignItem.getId());
+    }
+
+    @Test
+    void setApproveAll_shouldReportConflict_whenBookingChangedConcurrently() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+        Booking first = new Booking(1, start, end, item, userBooker, BookingStatus.WAITING);
+        Booking second = new Booking(2, start, end, item, userBooker, BookingStatus.WAITING);
+
+        Mockito.when(userIdentityCache.exists(user.getId()))
+                .thenReturn(true);
+
+        Mockito.when(bookingRepository.findByIdIn(any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(new Booking(1, start, end, item, userBooker, BookingStatus.REJECTED),
+                        new Booking(2, start, end, item, userBooker, BookingStatus.CANCELED)));
+
+        Mockito.when(bookingRepository.updateStatusByItemOwnerId(any(), any(), any(), any()))
+                .thenReturn(1);
+
+        List<BookingBulkResult> results = bookingService.setApproveAll(user.getId(), List.of(1, 2), false);
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(0).getBooking().getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertNull(results.get(1).getBooking());
+    }
+
+    @Test
+    void setApproveAll_throwsDtoIntegrityException_whenBatchIsEmpty() {
+        assertThrows(DtoIntegrityException.class, () -> bookingService.setApproveAll(user.getId(), List.of(), true));
+
+        verify(bookingRepository, never()).updateStatusByItemOwnerId(any(), any(), any(), any());
     }
 
     @Test
@@ -181,10 +312,7 @@ public class BookingServiceTest {
         Integer userId = user.getId();
         boolean isApproved = true;
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
         Mockito.when(bookingRepository.findById(bookingId))
@@ -193,18 +321,30 @@ public class BookingServiceTest {
         assertThrows(IllegalItemBookingException.class, () -> bookingService.setApprove(bookingId, userId, isApproved));
     }
 
+    @Test
+    void setApprove_throwsObjectNotFoundException_whenUserDoesNotExist() {
+        booking = new Booking(1, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(2), item, userBooker, BookingStatus.WAITING);
+
+        Integer bookingId = booking.getId();
+        Integer userId = 99;
+
+        Mockito.when(bookingRepository.findById(bookingId))
+                .thenReturn(Optional.ofNullable(booking));
+
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.setApprove(bookingId, userId, true));
+
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void setApprove_throwsUnavailableItemBookingException() {
         Integer bookingId = booking.getId();
         Integer userId = user.getId();
         boolean isApproved = true;
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
         Mockito.when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.ofNullable(booking));
 
@@ -219,12 +359,6 @@ public class BookingServiceTest {
         Integer userId = user.getId();
         boolean isApproved = true;
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
         Mockito.when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.empty());
 
@@ -236,12 +370,6 @@ public class BookingServiceTest {
         Integer bookingId = booking.getId();
         Integer userId = user.getId();
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
         Mockito.when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.ofNullable(booking));
 
@@ -255,12 +383,6 @@ public class BookingServiceTest {
         Integer bookingId = booking.getId();
         Integer userId = user.getId();
 
-        Mockito.when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
         Mockito.when(bookingRepository.findById(bookingId))
                 .thenReturn(Optional.empty());
 
@@ -273,40 +395,37 @@ public class BookingServiceTest {
         Integer from = 1;
         Integer size = 1;
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user));
-
         Mockito.when(bookingRepository.findByBookerId(any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        List<BookingDtoOutput> bookingDtoListSaved = bookingService.getAll("ALL", userId, from, size);
+        List<BookingDtoOutput> bookingDtoListSaved = bookingService.getAll("ALL", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAll("CURRENT", userId, from, size);
+        bookingDtoListSaved = bookingService.getAll("CURRENT", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByBookerIdAndEndIsBefore(any(), any(), any(Pageable.class)))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAll("PAST", userId, from, size);
+        bookingDtoListSaved = bookingService.getAll("PAST", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByBookerIdAndStartIsAfter(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAll("FUTURE", userId, from, size);
+        bookingDtoListSaved = bookingService.getAll("FUTURE", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByBookerIdAndStatus(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAll("WAITING", userId, from, size);
+        bookingDtoListSaved = bookingService.getAll("WAITING", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByBookerIdAndStatus(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAll("REJECTED", userId, from, size);
+        bookingDtoListSaved = bookingService.getAll("REJECTED", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
     }
 
@@ -316,40 +435,37 @@ public class BookingServiceTest {
         Integer from = 1;
         Integer size = 1;
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user));
-
         Mockito.when(bookingRepository.findByItemOwnerId(any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        List<BookingDtoOutput> bookingDtoListSaved = bookingService.getAllByOwner("ALL", userId, from, size);
+        List<BookingDtoOutput> bookingDtoListSaved = bookingService.getAllByOwner("ALL", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAllByOwner("CURRENT", userId, from, size);
+        bookingDtoListSaved = bookingService.getAllByOwner("CURRENT", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByItemOwnerIdAndEndIsBefore(any(), any(), any(Pageable.class)))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAllByOwner("PAST", userId, from, size);
+        bookingDtoListSaved = bookingService.getAllByOwner("PAST", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByItemOwnerIdAndStartIsAfter(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAllByOwner("FUTURE", userId, from, size);
+        bookingDtoListSaved = bookingService.getAllByOwner("FUTURE", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByItemOwnerIdAndStatus(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAllByOwner("WAITING", userId, from, size);
+        bookingDtoListSaved = bookingService.getAllByOwner("WAITING", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
 
         Mockito.when(bookingRepository.findByItemOwnerIdAndStatus(any(), any(), any()))
                 .thenReturn((new PageImpl<>(List.of(booking))));
-        bookingDtoListSaved = bookingService.getAllByOwner("REJECTED", userId, from, size);
+        bookingDtoListSaved = bookingService.getAllByOwner("REJECTED", userId, from, size, null).getContent();
         assertEquals(bookingDtoListSaved.size(), 1);
     }
 
@@ -359,12 +475,55 @@ public class BookingServiceTest {
         Integer from = 1;
         Integer size = 1;
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(true);
+
+        assertThrows(IllegalSearchModeException.class, () -> bookingService.getAllByOwner("UNKNOWN", userId, from, size, null));
+    }
+
+    @Test
+    void getAll_shouldSeekAfterCursor_whenCursorIsGiven() {
+        Integer userId = user.getId();
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now().minusDays(1), 5);
+
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user));
+        Mockito.when(bookingRepository.findByBookerIdSeek(userId, cursor.getTimestamp(), cursor.getId(), PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.ofSize(10), true));
+
+        Slice<BookingDtoOutput> bookingsFound = bookingService.getAll("ALL", userId, 0, 10, cursor.encode());
+
+        assertEquals(1, bookingsFound.getNumberOfElements());
+        assertEquals(booking.getId(), bookingsFound.getContent().get(0).getId());
+        assertTrue(bookingsFound.hasNext());
+        verify(bookingRepository, never()).findByBookerId(any(), any());
+    }
+
+    @Test
+    void getAllByOwner_shouldSeekAfterCursor_whenCursorIsGiven() {
+        Integer userId = user.getId();
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now().minusDays(1), 5);
+
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(true);
+
+        Mockito.when(bookingRepository.findByItemOwnerIdAndStatusSeek(userId, BookingStatus.WAITING, cursor.getTimestamp(), cursor.getId(), PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
+
+        Slice<BookingDtoOutput> bookingsFound = bookingService.getAllByOwner("WAITING", userId, 0, 10, cursor.encode());
+
+        assertEquals(1, bookingsFound.getNumberOfElements());
+        assertFalse(bookingsFound.hasNext());
+    }
+
+    @Test
+    void getAll_throwsDtoIntegrityException_whenCursorIsMalformed() {
+        Integer userId = user.getId();
+
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(true);
 
-        assertThrows(IllegalSearchModeException.class, () -> bookingService.getAllByOwner("UNKNOWN", userId, from, size));
+        assertThrows(DtoIntegrityException.class, () -> bookingService.getAll("ALL", userId, 0, 10, "not-a-cursor"));
     }
-}
\ No newline at end of file
+}
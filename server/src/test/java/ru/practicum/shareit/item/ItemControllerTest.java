@@ -7,9 +7,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.item.dto.CommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtended;
@@ -18,13 +21,15 @@ import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
 @AutoConfigureMockMvc
@@ -96,19 +101,45 @@ public class ItemControllerTest {
 
     @Test
     void get_shouldReturnStatusOk() throws Exception {
-        when(itemService.get(any(), any())).thenReturn(itemDtoWithRequestId);
+        when(itemService.get(any(), any())).thenReturn(itemDtoExtended);
 
         mockMvc.perform(get("/items/{Id}", 1)
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id", is(itemDtoWithRequestId.getId()), Integer.class))
-                .andExpect(jsonPath("$.name", is(itemDtoWithRequestId.getName())))
-                .andExpect(jsonPath("$.description", is(itemDtoWithRequestId.getDescription())))
-                .andExpect(jsonPath("$.available", is(itemDtoWithRequestId.getAvailable())));
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + EntityTags.ofItem(itemDtoExtended) + "\""))
+                .andExpect(jsonPath("$.id", is(itemDtoExtended.getId()), Integer.class))
+                .andExpect(jsonPath("$.name", is(itemDtoExtended.getName())))
+                .andExpect(jsonPath("$.description", is(itemDtoExtended.getDescription())))
+                .andExpect(jsonPath("$.available", is(itemDtoExtended.getAvailable())));
 
         verify(itemService, times(1)).get(any(), any());
     }
 
+    @Test
+    void get_shouldReturnStatusNotModified_whenETagMatches() throws Exception {
+        when(itemService.get(any(), any())).thenReturn(itemDtoExtended);
+
+        mockMvc.perform(get("/items/{Id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + EntityTags.ofItem(itemDtoExtended) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void get_shouldReturnStatusOk_whenItemChangedSinceETag() throws Exception {
+        String previousETag = "\"" + EntityTags.ofItem(itemDtoExtended) + "\"";
+        itemDtoExtended.setVersion(1);
+
+        when(itemService.get(any(), any())).thenReturn(itemDtoExtended);
+
+        mockMvc.perform(get("/items/{Id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, previousETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(itemDtoExtended.getId()), Integer.class));
+    }
+
     @Test
     void getAll() throws Exception {
         when(itemService.getAll(any())).thenReturn(List.of(itemDtoExtended));
@@ -126,18 +157,42 @@ public class ItemControllerTest {
 
     @Test
     void search() throws Exception {
-        when(itemService.search(any(), any())).thenReturn(List.of(itemDto));
+        when(itemService.search(any(), any(), any(), any(), any())).thenReturn(Stream.of(itemDto));
 
-        mockMvc.perform(get("/items/search")
+        MvcResult result = mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
                         .param("text", "balalaika"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Integer.class))
                 .andExpect(jsonPath("$.[0].name", is(itemDto.getName())))
                 .andExpect(jsonPath("$.[0].description", is(itemDto.getDescription())))
                 .andExpect(jsonPath("$.[0].available", is(itemDto.getAvailable())));
 
-        verify(itemService, times(1)).search(any(), any());
+        verify(itemService, times(1)).search(any(), eq("balalaika"), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    void search_shouldPassPagingParameters() throws Exception {
+        when(itemService.search(any(), any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        MvcResult result = mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "balalaika")
+                        .param("from", "10")
+                        .param("size", "5")
+                        .param("after", "42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(itemService, times(1)).search(1, "balalaika", 10, 5, 42);
     }
 
     @Test
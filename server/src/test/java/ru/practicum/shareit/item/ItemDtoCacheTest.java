@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.service.ItemDtoCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemDtoCacheTest {
+
+    private ItemDtoCache itemDtoCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        itemDtoCache = new ItemDtoCache(100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldLoadOnce_whenBoundaryIsAhead() {
+        LocalDateTime validUntil = LocalDateTime.now().plusDays(1);
+
+        itemDtoCache.get(1, true, () -> load(1, validUntil));
+        itemDtoCache.get(1, true, () -> load(1, validUntil));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldLoadAgain_whenBoundaryHasPassed() {
+        LocalDateTime validUntil = LocalDateTime.now().minusSeconds(1);
+
+        itemDtoCache.get(1, true, () -> load(1, validUntil));
+        itemDtoCache.get(1, true, () -> load(1, validUntil));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldKeepOwnerAndNotOwnerViewsApart() {
+        ItemDtoExtended ownerView = itemDtoCache.get(1, true, () -> load(1, null));
+        ItemDtoExtended notOwnerView = itemDtoCache.get(1, false, () -> load(1, null));
+
+        assertNotSame(ownerView, notOwnerView);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_shouldDropBothViewsOfItem() {
+        itemDtoCache.get(1, true, () -> load(1, null));
+        itemDtoCache.get(1, false, () -> load(1, null));
+        itemDtoCache.get(2, true, () -> load(2, null));
+
+        itemDtoCache.evict(1);
+
+        itemDtoCache.get(1, true, () -> load(1, null));
+        itemDtoCache.get(1, false, () -> load(1, null));
+        itemDtoCache.get(2, true, () -> load(2, null));
+
+        assertEquals(5, loads.get());
+    }
+
+    private ItemDtoCache.Entry load(Integer itemId, LocalDateTime validUntil) {
+        loads.incrementAndGet();
+        ItemDtoExtended itemDto = new ItemDtoExtended(new ItemDto(itemId, "Balalaika", "Brand new balalaika", true), List.of());
+        return new ItemDtoCache.Entry(itemDto, validUntil);
+    }
+}
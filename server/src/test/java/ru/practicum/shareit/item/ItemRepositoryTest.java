@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.Request;
@@ -14,9 +15,11 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class ItemRepositoryTest {
@@ -74,6 +77,52 @@ public class ItemRepositoryTest {
         assertEquals(request.getId(), itemSaved.getRequest().getId());
     }
 
+    @Test
+    void findByRequestIdIn() {
+        Request otherRequest = addRequest("Looking for a samovar.", LocalDateTime.now().minusDays(2), itemOwner);
+        addItem("Samovar", "Old brass samovar", true, itemOwner, otherRequest);
+        addItem("Matryoshka", "A set of 5 dolls", true, itemOwner, null);
+
+        List<Item> itemsSaved = itemRepository.findByRequestIdIn(List.of(request.getId(), otherRequest.getId()));
+
+        assertEquals(2, itemsSaved.size());
+        assertTrue(itemsSaved.stream().allMatch(item -> item.getRequest() != null));
+    }
+
+    @Test
+    void searchAvailable() {
+        addItem("Samovar", "Old brass samovar", false, itemOwner, null);
+        addItem("Drill 100%", "Cordless drill", true, itemOwner, null);
+
+        List<Item> itemsFound = itemRepository.searchAvailable("%alalaik%", 0, PageRequest.of(0, 10));
+
+        assertEquals(1, itemsFound.size());
+        assertEquals("Balalaika", itemsFound.get(0).getName());
+
+        assertTrue(itemRepository.searchAvailable("%alalaik%", itemsFound.get(0).getId(), PageRequest.of(0, 10)).isEmpty());
+        assertTrue(itemRepository.searchAvailable("%samovar%", 0, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, itemRepository.searchAvailable("%100!%%", 0, PageRequest.of(0, 10)).size());
+        assertTrue(itemRepository.searchAvailable("%10!%%", 0, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, itemRepository.searchAvailable("%drill%", 0, PageRequest.of(0, 1)).size());
+    }
+
+    @Test
+    void findByAvailableTrueAndIdGreaterThanOrderByIdAsc() {
+        Item balalaika = itemRepository.findByOwnerIdOrderByIdAsc(itemOwner.getId()).get(0);
+        addItem("Samovar", "Old brass samovar", false, itemOwner, null);
+        Item drill = addItem("Drill 100%", "Cordless drill", true, itemOwner, null);
+        Item matryoshka = addItem("Matryoshka", "A set of 5 dolls", true, itemOwner, null);
+
+        assertEquals(List.of(balalaika.getId(), drill.getId()),
+                itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 2)).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList()));
+        assertEquals(List.of(matryoshka.getId()),
+                itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(drill.getId(), PageRequest.of(0, 2)).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList()));
+    }
+
     private Item addItem(String name, String description, boolean available, User owner, Request request) {
         Item itemToSave = new Item();
         itemToSave.setName(name);
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.search.ScanItemSearchEngine;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private Item item1;
+
+    private Item item2;
+
+    @BeforeEach
+    void setup() {
+        item1 = new Item(1, "Balalaika", "Brand new balalaika", true);
+        item2 = new Item(2, "Samovar", "Old brass samovar", false);
+    }
+
+    @Test
+    void databaseEngine_shouldSearchByEscapedLowerCasePattern() {
+        DatabaseItemSearchEngine engine = new DatabaseItemSearchEngine(itemRepository);
+
+        Mockito.when(itemRepository.searchAvailable("%100!%!_drill%", 0, PageRequest.of(0, 10)))
+                .thenReturn(List.of(item1));
+
+        assertEquals(List.of(item1), engine.search("100%_DRILL", 0, 10));
+
+        verify(itemRepository).searchAvailable("%100!%!_drill%", 0, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void databaseEngine_shouldEscapeEscapeCharacter() {
+        DatabaseItemSearchEngine engine = new DatabaseItemSearchEngine(itemRepository);
+
+        Mockito.when(itemRepository.searchAvailable("%wow!!%", 3, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(), engine.search("wow!", 3, 10));
+    }
+
+    @Test
+    void scanEngine_shouldFilterAvailableItemsInMemory() {
+        ScanItemSearchEngine engine = new ScanItemSearchEngine(itemRepository);
+
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 500)))
+                .thenReturn(List.of(item1));
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(item1.getId(), PageRequest.of(0, 500)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(item1), engine.search("BaLaLaiKa", 0, 10));
+        assertEquals(List.of(), engine.search("BaLaLaiKa", item1.getId(), 10));
+        assertEquals(List.of(), engine.search("samovar", 0, 10));
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private Item item1;
+
+    private Item item2;
+
+    private Item item3;
+
+    @BeforeEach
+    void setup() {
+        item1 = new Item(1, "Balalaika", "Brand new balalaika", true);
+        item2 = new Item(2, "Matryoshka", "A set of 5 dolls", true);
+        item3 = new Item(3, "Samovar", "Old brass samovar", false);
+    }
+
+    @Test
+    void rebuild_shouldIndexAllItemsFromRepository() {
+        Mockito.when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0), any()))
+                .thenReturn(List.of(item1, item2));
+        stubFindAllById(item1, item2, item3);
+
+        itemSearchIndex.start();
+
+        List<Item> itemsFound = itemSearchIndex.search("DOLL", 0, Integer.MAX_VALUE);
+
+        assertEquals(1, itemsFound.size());
+        assertEquals(item2.getId(), itemsFound.get(0).getId());
+    }
+
+    @Test
+    void search_shouldMatchCaseInsensitiveSubstringOfNameOrDescription() {
+        stubFindAllById(item1, item2);
+
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(item2);
+
+        assertAll(
+                () -> assertEquals(List.of(item1), itemSearchIndex.search("BaLaLaiKa", 0, Integer.MAX_VALUE)),
+                () -> assertEquals(List.of(item1), itemSearchIndex.search("and ne", 0, Integer.MAX_VALUE)),
+                () -> assertEquals(List.of(item1, item2), itemSearchIndex.search("a", 0, Integer.MAX_VALUE)),
+                () -> assertEquals(List.of(item2), itemSearchIndex.search("et o", 0, Integer.MAX_VALUE))
+        );
+    }
+
+    @Test
+    void search_shouldNotMatchAcrossNameAndDescription() {
+        itemSearchIndex.index(item1);
+
+        assertTrue(itemSearchIndex.search("balalaikabrand", 0, Integer.MAX_VALUE).isEmpty());
+
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void search_shouldSkipUnavailableItems() {
+        itemSearchIndex.index(item3);
+
+        assertTrue(itemSearchIndex.search("samovar", 0, Integer.MAX_VALUE).isEmpty());
+
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfItem() {
+        itemSearchIndex.index(item1);
+
+        Item updatedItem = new Item(1, "Guitar", "Six strings", true);
+        stubFindAllById(updatedItem);
+
+        itemSearchIndex.index(updatedItem);
+
+        assertAll(
+                () -> assertTrue(itemSearchIndex.search("balalaika", 0, Integer.MAX_VALUE).isEmpty()),
+                () -> assertEquals(List.of(updatedItem), itemSearchIndex.search("guitar", 0, Integer.MAX_VALUE))
+        );
+    }
+
+    @Test
+    void index_shouldDropItemThatBecameUnavailable() {
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(new Item(1, "Balalaika", "Brand new balalaika", false));
+
+        assertTrue(itemSearchIndex.search("balalaika", 0, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void search_shouldReturnItemsAfterGivenIdUpToLimit() {
+        Item item4 = new Item(4, "Balalaika bass", "Big balalaika", true);
+        stubFindAllById(item4);
+
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(item2);
+        itemSearchIndex.index(item4);
+
+        assertEquals(List.of(item4), itemSearchIndex.search("balalaika", item1.getId(), 1));
+    }
+
+    @Test
+    void search_shouldContinueAfterLastCandidate_whenRepositoryDropsStaleItems() {
+        Item item4 = new Item(4, "Balalaika bass", "Big balalaika", true);
+        Item item5 = new Item(5, "Balalaika case", "Hard case", true);
+        stubFindAllById(item4, item5);
+
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(new Item(2, "Balalaika strings", "Spare strings", true));
+        itemSearchIndex.index(item4);
+        itemSearchIndex.index(item5);
+
+        assertEquals(List.of(item4, item5), itemSearchIndex.search("balalaika", 0, 2));
+    }
+
+    @Test
+    void search_shouldScanDocuments_whenQueryIsShorterThanGram() {
+        Item item4 = new Item(4, "Ax", "Heavy", true);
+        stubFindAllById(item1, item2, item4);
+
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(item2);
+        itemSearchIndex.index(item4);
+
+        assertAll(
+                () -> assertEquals(List.of(item1, item2), itemSearchIndex.search("KA", 0, Integer.MAX_VALUE)),
+                () -> assertEquals(List.of(item2), itemSearchIndex.search("ka", item1.getId(), 1)),
+                () -> assertEquals(List.of(item4), itemSearchIndex.search("ax", 0, Integer.MAX_VALUE))
+        );
+    }
+
+    @Test
+    void search_shouldReturnItemsInIdOrder_whenIndexedOutOfOrder() {
+        Item item4 = new Item(4, "Balalaika bass", "Big balalaika", true);
+        stubFindAllById(item1, item4);
+
+        itemSearchIndex.index(item4);
+        itemSearchIndex.index(item1);
+
+        assertEquals(List.of(item1, item4), itemSearchIndex.search("balalaika", 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void remove_shouldDropItemFromIndex() {
+        itemSearchIndex.index(item1);
+
+        itemSearchIndex.remove(item1.getId());
+
+        assertTrue(itemSearchIndex.search("balalaika", 0, Integer.MAX_VALUE).isEmpty());
+        assertTrue(itemSearchIndex.search("b", 0, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void search_shouldReturnEmptyList_whenTextIsEmpty() {
+        itemSearchIndex.index(item1);
+
+        assertTrue(itemSearchIndex.search("", 0, Integer.MAX_VALUE).isEmpty());
+    }
+
+    private void stubFindAllById(Item... items) {
+        Map<Integer, Item> itemsById = List.of(items).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        Mockito.when(itemRepository.findAllById(any()))
+                .thenAnswer(invocation -> {
+                    Iterable<Integer> ids = invocation.getArgument(0);
+                    return StreamSupport.stream(ids.spliterator(), false)
+                            .map(itemsById::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList());
+                });
+    }
+}
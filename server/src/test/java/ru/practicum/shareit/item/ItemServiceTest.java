@@ -3,14 +3,12 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.booking.dto.BookingMapperImpl;
 import ru.practicum.shareit.booking.model.Booking;
@@ -25,15 +23,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemDtoCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.loader.EntityLoader;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,7 +49,6 @@ import static org.mockito.Mockito.*;
 @TestPropertySource(properties = {"db.name=test"})
 public class ItemServiceTest {
 
-    @InjectMocks
     private ItemServiceImpl itemService;
 
     @Mock
@@ -53,6 +57,9 @@ public class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
     @Mock
     private BookingRepository bookingRepository;
 
@@ -62,6 +69,12 @@ public class ItemServiceTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Spy
+    private ItemDtoCache itemDtoCache = new ItemDtoCache(100, Duration.ofMinutes(10));
+
     @Spy
     private Item item;
 
@@ -95,6 +108,10 @@ public class ItemServiceTest {
 
     @BeforeEach
     void setup() {
+        itemService = new ItemServiceImpl(itemRepository,
+                new EntityLoader(userRepository, userIdentityCache, itemRepository, requestRepository),
+                bookingRepository, commentRepository, requestRepository, itemSearchEngine, itemDtoCache, itemMapper, bookingMapper, commentMapper);
+
         user2 = new User(2, "Shaun", "shaun@ya.ru");
         request = new Request(1, "Looking for a balalaika", LocalDateTime.now(), user2);
         user1 = new User(1, "Jason", "jason@ya.ru");
@@ -112,12 +129,9 @@ public class ItemServiceTest {
 
         Integer userId = user1.getId();
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user1));
-
         Mockito
                 .when(itemRepository.save(any()))
                 .thenReturn(item1);
@@ -133,6 +147,8 @@ public class ItemServiceTest {
         );
 
         verify(itemRepository, atMostOnce()).saveAndFlush(any());
+        verify(userRepository).getReferenceById(userId);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -143,17 +159,11 @@ public class ItemServiceTest {
         Mockito.when(requestRepository.existsById(itemDtoToSave.getRequestId()))
                 .thenReturn(true);
 
-        Mockito.when(requestRepository.findById(request.getId()))
-                .thenReturn(Optional.ofNullable(request));
-
         Integer userId = user1.getId();
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user1));
-
         Mockito
                 .when(itemRepository.save(any()))
                 .thenReturn(item1);
@@ -169,6 +179,10 @@ public class ItemServiceTest {
         );
 
         verify(itemRepository, atMostOnce()).saveAndFlush(any());
+        verify(userRepository).getReferenceById(userId);
+        verify(userRepository, never()).findById(any());
+        verify(requestRepository).getReferenceById(request.getId());
+        verify(requestRepository, never()).findById(any());
     }
 
     @Test
@@ -193,9 +207,6 @@ public class ItemServiceTest {
         ItemDto itemDtoUpdate = itemMapper.toItemDto(item2);
         Integer userId = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemIdToUpdate))
-                .thenReturn(true);
-
         item1.setOwner(user1);
 
         Mockito.when(itemRepository.findById(itemIdToUpdate))
@@ -214,6 +225,7 @@ public class ItemServiceTest {
         );
 
         verify(itemRepository, atMostOnce()).saveAndFlush(any());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -222,8 +234,8 @@ public class ItemServiceTest {
         ItemDto itemDtoUpdate = itemMapper.toItemDto(item2);
         Integer userId = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemIdToUpdate))
-                .thenReturn(false);
+        Mockito.when(itemRepository.findById(itemIdToUpdate))
+                .thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> itemService.update(itemIdToUpdate, userId, itemDtoUpdate));
     }
@@ -232,12 +244,12 @@ public class ItemServiceTest {
     void update_throwsObjectNotFoundException_whenUserNotFound() {
         Integer itemIdToUpdate = item1.getId();
         ItemDto itemDtoUpdate = itemMapper.toItemDto(item1);
-        Integer userId = user1.getId();
+        Integer userId = 99;
 
-        Mockito.when(itemRepository.existsById(itemIdToUpdate))
-                .thenReturn(true);
+        Mockito.when(itemRepository.findById(itemIdToUpdate))
+                .thenReturn(Optional.ofNullable(item1));
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(false);
 
         assertThrows(ObjectNotFoundException.class, () -> itemService.update(itemIdToUpdate, userId, itemDtoUpdate));
@@ -249,9 +261,6 @@ public class ItemServiceTest {
         ItemDto itemDtoUpdate = itemMapper.toItemDto(item2);
         Integer userId = user2.getId();
 
-        Mockito.when(itemRepository.existsById(itemIdToUpdate))
-                .thenReturn(true);
-
         item1.setOwner(user1);
 
         Mockito.when(itemRepository.findById(itemIdToUpdate))
@@ -266,20 +275,17 @@ public class ItemServiceTest {
         Integer itemIdToGet = item1.getId();
         Integer userIdRequesting = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemIdToGet))
-                .thenReturn(true);
-
         Mockito.when(itemRepository.findById(itemIdToGet))
                 .thenReturn(Optional.ofNullable(item1));
 
         Mockito.when(commentRepository.findByItemId(itemIdToGet))
                 .thenReturn(List.of());
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(itemIdToGet, LocalDateTime.now(), BookingStatus.REJECTED, Sort.by("start").descending()))
-                .thenReturn(List.of());
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(itemIdToGet, LocalDateTime.now(), BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(itemIdToGet, LocalDateTime.now(), BookingStatus.REJECTED, Sort.by("start").ascending()))
-                .thenReturn(List.of());
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(itemIdToGet, LocalDateTime.now(), BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
 
         ItemDtoExtended savedItemDtoExtended = itemService.get(itemIdToGet, userIdRequesting);
 
@@ -301,20 +307,17 @@ public class ItemServiceTest {
         Integer itemId = item1.getId();
         Integer userId = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemId))
-                .thenReturn(true);
-
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.ofNullable(item1));
 
         Mockito.when(commentRepository.findByItemId(itemId))
                 .thenReturn(List.of(comment));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, Sort.by("start").descending()))
-                .thenReturn(List.of());
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(itemId, LocalDateTime.now(), BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, Sort.by("start").ascending()))
-                .thenReturn(List.of());
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(itemId, LocalDateTime.now(), BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
 
         ItemDtoExtended savedItemDtoExtended = itemService.get(itemId, userId);
 
@@ -336,20 +339,17 @@ public class ItemServiceTest {
         Integer itemId = item1.getId();
         Integer userId = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemId))
-                .thenReturn(true);
-
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.ofNullable(item1));
 
         Mockito.when(commentRepository.findByItemId(itemId))
                 .thenReturn(List.of());
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(List.of(lastBooking));
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(lastBooking));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(List.of(nextBooking));
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(nextBooking));
 
         ItemDtoExtended itemDtoSaved = itemService.get(itemId, userId);
 
@@ -367,12 +367,57 @@ public class ItemServiceTest {
     }
 
     @Test
-    void get_shouldReturnItemDtoExtendedWithComments() {
+    void get_shouldReuseAssembledItemDtoExtended_whenRequestedAgain() {
         Integer itemId = item1.getId();
         Integer userId = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemId))
-                .thenReturn(true);
+        Mockito.when(itemRepository.findById(itemId))
+                .thenReturn(Optional.ofNullable(item1));
+
+        Mockito.when(commentRepository.findByItemId(itemId))
+                .thenReturn(List.of());
+
+        Mockito.when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(lastBooking));
+
+        Mockito.when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(nextBooking));
+
+        ItemDtoExtended first = itemService.get(itemId, userId);
+        ItemDtoExtended second = itemService.get(itemId, userId);
+
+        assertEquals(first, second);
+        verify(commentRepository, times(1)).findByItemId(itemId);
+        verify(bookingRepository, times(1)).findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void get_shouldAssembleItemDtoExtendedAgain_afterItemIsUpdated() {
+        Integer itemId = item1.getId();
+        Integer userId = user1.getId();
+
+        Mockito.when(itemRepository.findById(itemId))
+                .thenReturn(Optional.ofNullable(item1));
+
+        Mockito.when(commentRepository.findByItemId(itemId))
+                .thenReturn(List.of());
+
+        Mockito.when(itemRepository.save(any()))
+                .thenReturn(item1);
+
+        itemService.get(itemId, userId);
+        itemService.update(itemId, userId, itemMapper.toItemDto(item2));
+        ItemDtoExtended itemDtoUpdated = itemService.get(itemId, userId);
+
+        assertEquals(item2.getName(), itemDtoUpdated.getName());
+        verify(commentRepository, times(2)).findByItemId(itemId);
+        verify(itemDtoCache).evict(itemId);
+    }
+
+    @Test
+    void get_shouldReturnItemDtoExtendedWithComments() {
+        Integer itemId = item1.getId();
+        Integer userId = user1.getId();
 
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.ofNullable(item1));
@@ -380,11 +425,11 @@ public class ItemServiceTest {
         Mockito.when(commentRepository.findByItemId(itemId))
                 .thenReturn(List.of(comment));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(List.of(lastBooking));
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(lastBooking));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(List.of(nextBooking));
+        Mockito.lenient().when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusNotOrderByStartAsc(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
+                .thenReturn(Optional.of(nextBooking));
 
         ItemDtoExtended savedItemDtoExtended = itemService.get(itemId, userId);
 
@@ -404,8 +449,8 @@ public class ItemServiceTest {
         Integer itemIdToGet = item1.getId();
         Integer userIdRequesting = user1.getId();
 
-        Mockito.when(itemRepository.existsById(itemIdToGet))
-                .thenReturn(false);
+        Mockito.when(itemRepository.findById(itemIdToGet))
+                .thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> itemService.get(itemIdToGet, userIdRequesting));
     }
@@ -415,22 +460,34 @@ public class ItemServiceTest {
         Integer userId = user1.getId();
 
         Mockito.when(itemRepository.findByOwnerIdOrderByIdAsc(userId))
-                .thenReturn(List.of(item1));
+                .thenReturn(List.of(item1, item2));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
+        Mockito.when(bookingRepository.findLastByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
                 .thenReturn(List.of(lastBooking));
 
-        Mockito.lenient().when(bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(any(), any(LocalDateTime.class), eq(BookingStatus.REJECTED), any()))
+        Mockito.when(bookingRepository.findNextByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class), eq(BookingStatus.REJECTED)))
                 .thenReturn(List.of(nextBooking));
 
         List<ItemDtoExtended> allUserItems = itemService.getAll(userId);
 
         assertAll(
-                () -> assertFalse(allUserItems.isEmpty()),
-                () -> assertNotNull(allUserItems.get(0).getLastBooking()),
-                () -> assertNotNull(allUserItems.get(0).getNextBooking())
+                () -> assertEquals(2, allUserItems.size()),
+                () -> assertEquals(lastBooking.getId(), allUserItems.get(0).getLastBooking().getId()),
+                () -> assertEquals(nextBooking.getId(), allUserItems.get(0).getNextBooking().getId()),
+                () -> assertNull(allUserItems.get(1).getLastBooking()),
+                () -> assertNull(allUserItems.get(1).getNextBooking())
         );
         verify(itemRepository).findByOwnerIdOrderByIdAsc(userId);
+        verify(bookingRepository, never()).findFirstByItemIdAndStartIsBeforeAndStatusNotOrderByStartDesc(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldNotQueryBookings_whenUserHasNoItems() {
+        Mockito.when(itemRepository.findByOwnerIdOrderByIdAsc(user1.getId()))
+                .thenReturn(List.of());
+
+        assertTrue(itemService.getAll(user1.getId()).isEmpty());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -438,17 +495,18 @@ public class ItemServiceTest {
         Integer userIdRequesting = user1.getId();
         String text = "BaLaLaiKa";
 
-        Mockito.when(itemRepository.findAll())
-                .thenReturn(List.of(item1, item2));
+        Mockito.when(itemSearchEngine.search(text, 0, 100))
+                .thenReturn(List.of(item1));
 
-        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text);
+        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text, null, null, null)
+                .collect(Collectors.toList());
 
         assertAll(
                 () -> assertFalse(itemsFound.isEmpty()),
                 () -> assertEquals(itemsFound.get(0), itemMapper.toItemDto(item1))
         );
 
-        verify(itemRepository).findAll();
+        verify(itemSearchEngine).search(text, 0, 100);
     }
 
     @Test
@@ -456,21 +514,57 @@ public class ItemServiceTest {
         Integer userIdRequesting = user1.getId();
         String text = "";
 
-        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text);
+        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text, null, null, null)
+                .collect(Collectors.toList());
 
         assertTrue(itemsFound.isEmpty());
     }
 
+    @Test
+    void search_shouldApplyOffsetAndSize() {
+        Integer userIdRequesting = user1.getId();
+        String text = "a";
+
+        Mockito.when(itemSearchEngine.search(text, 0, 2))
+                .thenReturn(List.of(item1, item2));
+
+        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text, 1, 1, null)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(itemMapper.toItemDto(item2)), itemsFound);
+    }
+
+    @Test
+    void search_shouldFetchNextChunkAfterLastItemOfPreviousChunk() {
+        Integer userIdRequesting = user1.getId();
+        String text = "a";
+        List<Item> firstChunk = IntStream.rangeClosed(6, 105)
+                .mapToObj(id -> new Item(id, "Balalaika " + id, "Brand new balalaika", true))
+                .collect(Collectors.toList());
+
+        Mockito.when(itemSearchEngine.search(text, 5, 100))
+                .thenReturn(firstChunk);
+
+        Mockito.when(itemSearchEngine.search(text, 105, 100))
+                .thenReturn(List.of(new Item(106, "Balalaika 106", "Brand new balalaika", true)));
+
+        List<ItemDto> itemsFound = itemService.search(userIdRequesting, text, null, null, 5)
+                .collect(Collectors.toList());
+
+        assertAll(
+                () -> assertEquals(101, itemsFound.size()),
+                () -> assertEquals(6, itemsFound.get(0).getId()),
+                () -> assertEquals(106, itemsFound.get(100).getId())
+        );
+    }
+
     @Test
     void addComment_shouldReturnCommentOutputDto() {
         Integer itemId = item1.getId();
         Integer userId = user2.getId();
 
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(itemId))
-                .thenReturn(true);
+        Mockito.when(userRepository.findById(userId))
+                .thenReturn(Optional.ofNullable(user2));
 
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.ofNullable(item1));
@@ -478,9 +572,6 @@ public class ItemServiceTest {
         Mockito.lenient().when(bookingRepository.findByBookerIdAndEndIsBefore(anyInt(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(lastBooking)));
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user2));
-
         Mockito.when(commentRepository.save(any(Comment.class)))
                 .thenReturn(comment);
 
@@ -493,6 +584,8 @@ public class ItemServiceTest {
                 () -> assertEquals(comment.getAuthor().getName(), commentSaved.getAuthorName()),
                 () -> assertNotNull(commentSaved.getCreated())
         );
+
+        verify(itemDtoCache).evict(itemId);
     }
 
     @Test
@@ -500,11 +593,8 @@ public class ItemServiceTest {
         Integer itemId = item1.getId();
         Integer userId = user2.getId();
 
-        Mockito.when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        Mockito.when(itemRepository.existsById(itemId))
-                .thenReturn(true);
+        Mockito.when(userRepository.findById(userId))
+                .thenReturn(Optional.ofNullable(user2));
 
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.ofNullable(item1));
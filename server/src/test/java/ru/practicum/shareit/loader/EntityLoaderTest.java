@@ -0,0 +1,84 @@
+package ru.practicum.shareit.loader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityLoaderTest {
+
+    @InjectMocks
+    private EntityLoader entityLoader;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Test
+    void requireUser_shouldCheckIdentityCacheOnly() {
+        Mockito.when(userIdentityCache.exists(1))
+                .thenReturn(true);
+
+        entityLoader.requireUser(1);
+
+        verify(userIdentityCache).exists(1);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void requireUser_shouldThrowObjectNotFoundException_whenUserNotFound() {
+        Mockito.when(userIdentityCache.exists(1))
+                .thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> entityLoader.requireUser(1));
+    }
+
+    @Test
+    void loadItem_shouldReturnItem() {
+        Item item = new Item(1, "Balalaika", "Brand new balalaika", true);
+
+        Mockito.when(itemRepository.findById(1))
+                .thenReturn(Optional.of(item));
+
+        assertEquals(item, entityLoader.loadItem(1));
+    }
+
+    @Test
+    void loadItem_shouldThrowObjectNotFoundException_whenItemNotFound() {
+        Mockito.when(itemRepository.findById(1))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> entityLoader.loadItem(1));
+    }
+
+    @Test
+    void loadRequest_shouldThrowObjectNotFoundException_whenRequestNotFound() {
+        Mockito.when(requestRepository.findById(1))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> entityLoader.loadRequest(1));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.DtoIntegrityException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KeysetCursorTest {
+
+    @Test
+    void decode_shouldRestoreEncodedCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2023, 7, 1, 12, 30, 15, 123456000), 42);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_throwsDtoIntegrityException_whenTokenIsMalformed() {
+        assertThrows(DtoIntegrityException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(DtoIntegrityException.class, () -> KeysetCursor.decode("%%%"));
+    }
+}
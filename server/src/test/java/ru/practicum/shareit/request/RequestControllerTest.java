@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -91,7 +92,7 @@ public class RequestControllerTest {
 
     @Test
     void getAll_shouldReturnStatusOk() throws Exception {
-        when(requestService.getAll(any(), any(), any())).thenReturn(List.of(requestDtoOutput));
+        when(requestService.getAll(any(), any(), any(), any())).thenReturn(new SliceImpl<>(List.of(requestDtoOutput)));
 
         mockMvc.perform(get("/requests/all")
                         .param("from", String.valueOf(0))
@@ -100,7 +101,7 @@ public class RequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].id", is(requestDtoOutput.getId()), Integer.class))
                 .andExpect(jsonPath("$.[0].description", is(requestDtoOutput.getDescription())));
-        verify(requestService, times(1)).getAll(any(), any(), any());
+        verify(requestService, times(1)).getAll(any(), any(), any(), any());
     }
 
     @Test
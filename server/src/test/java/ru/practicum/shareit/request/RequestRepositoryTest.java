@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.Request;
@@ -13,6 +16,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,19 +63,38 @@ public class RequestRepositoryTest {
     }
 
     @Test
-    void findByRequestingUserIdNotOrderByCreatedDesc() {
+    void findByRequestingUserIdNot() {
         addRequest("Looking for a balalaika", LocalDateTime.now().minusDays(6), user);
-        List<Request> requestsSaved = requestRepository.findByRequestingUserIdNotOrderByCreatedDesc(5);
+        Slice<Request> requestsSaved = requestRepository.findByRequestingUserIdNot(5, PageRequest.of(0, 10, Sort.by("created").descending()));
 
         assertNotNull(requestsSaved);
-        assertEquals(1, requestsSaved.size());
+        assertEquals(1, requestsSaved.getNumberOfElements());
 
-        Request requestSaved = requestsSaved.get(0);
+        Request requestSaved = requestsSaved.getContent().get(0);
 
         assertNotNull(requestSaved);
         assertEquals(user.getId(), requestSaved.getRequestingUser().getId());
     }
 
+    @Test
+    void findByRequestingUserIdNotSeek() {
+        LocalDateTime created = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        Request older = addRequest("Looking for a samovar", created.minusDays(1), user);
+        Request first = addRequest("Looking for a balalaika", created, user);
+        Request second = addRequest("Looking for a matryoshka", created, user);
+
+        Slice<Request> requestsSaved = requestRepository.findByRequestingUserIdNotSeek(user.getId() + 1, created, second.getId(), PageRequest.ofSize(1));
+
+        assertEquals(first.getId(), requestsSaved.getContent().get(0).getId());
+        assertTrue(requestsSaved.hasNext());
+
+        requestsSaved = requestRepository.findByRequestingUserIdNotSeek(user.getId() + 1, created, first.getId(), PageRequest.ofSize(1));
+
+        assertEquals(older.getId(), requestsSaved.getContent().get(0).getId());
+        assertFalse(requestsSaved.hasNext());
+        assertFalse(requestRepository.findByRequestingUserIdNotSeek(user.getId(), created, second.getId(), PageRequest.ofSize(1)).hasContent());
+    }
+
     private Request addRequest(String description, LocalDateTime created, User requestingUser) {
         Request requestToSave = new Request();
         requestToSave.setDescription(description);
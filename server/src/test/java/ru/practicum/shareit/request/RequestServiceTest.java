@@ -3,22 +3,29 @@ package ru.practicum.shareit.request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.exceptions.DtoIntegrityException;
+import ru.practicum.shareit.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.loader.EntityLoader;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.*;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,12 +33,14 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource(properties = {"db.name=test"})
 public class RequestServiceTest {
 
-    @InjectMocks
     private RequestServiceImpl requestService;
 
     @Mock
@@ -43,6 +52,9 @@ public class RequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
     @Spy
     private RequestMapperImpl requestMapper;
 
@@ -55,9 +67,12 @@ public class RequestServiceTest {
 
     @BeforeEach
     void setup() {
-        item = new Item(1, "Balalaika", "Brand new balalaika", true, user, request);
+        requestService = new RequestServiceImpl(itemRepository, itemMapper, requestRepository,
+                new EntityLoader(userRepository, userIdentityCache, itemRepository, requestRepository), requestMapper);
+
         user = new User(2, "Shaun", "shaun@ya.ru");
         request = new Request(1, "Looking for Balalaika", LocalDateTime.now(), user);
+        item = new Item(1, "Balalaika", "Brand new balalaika", true, user, request);
     }
 
     @Test
@@ -65,12 +80,9 @@ public class RequestServiceTest {
         Integer userId = user.getId();
         RequestDtoInput requestDtoInput = new RequestDtoInput(request.getDescription());
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user));
-
         Mockito.lenient()
                 .when(requestRepository.save(any()))
                 .thenReturn(request);
@@ -81,6 +93,9 @@ public class RequestServiceTest {
                 () -> assertEquals(request.getDescription(), requestDtoSaved.getDescription()),
                 () -> assertNotNull(requestDtoSaved.getCreated())
         );
+
+        verify(userRepository).getReferenceById(userId);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -88,7 +103,7 @@ public class RequestServiceTest {
         Integer userId = user.getId();
         RequestDtoInput requestDtoInput = new RequestDtoInput();
 
-        Mockito.when(userRepository.existsById(user.getId()))
+        Mockito.when(userIdentityCache.exists(user.getId()))
                 .thenReturn(true);
 
         assertThrows(DtoIntegrityException.class, () -> requestService.add(requestDtoInput, userId));
@@ -98,51 +113,85 @@ public class RequestServiceTest {
     void getByUser_shouldReturnRequestDtoShortOutputWithItems() {
         Integer userId = user.getId();
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
+        Request otherRequest = new Request(2, "Looking for a samovar", LocalDateTime.now().minusDays(1), user);
+
         Mockito.when(requestRepository.findByRequestingUserIdOrderByCreatedDesc(userId))
-                .thenReturn(List.of(request));
+                .thenReturn(List.of(request, otherRequest));
 
-        Mockito.when(itemRepository.findByRequestId(request.getId()))
+        Mockito.when(itemRepository.findByRequestIdIn(List.of(request.getId(), otherRequest.getId())))
                 .thenReturn(List.of(item));
 
         List<RequestDtoOutput> requestDtoSaved = requestService.getByUser(userId);
 
         assertNotNull(requestDtoSaved.get(0));
         assertEquals(requestDtoSaved.get(0).getItems().size(), 1);
+        assertEquals(request.getId(), requestDtoSaved.get(0).getItems().get(0).getRequestId());
+        assertTrue(requestDtoSaved.get(1).getItems().isEmpty());
+        verify(itemRepository, never()).findByRequestId(any());
     }
 
     @Test
     void getAll_shouldReturnRequestDtoOutput() {
-        Integer from = 0;
-        Integer size = 1;
+        Integer from = 2;
+        Integer size = 2;
         Integer userId = user.getId();
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(requestRepository.findByRequestingUserIdNotOrderByCreatedDesc(userId))
-                .thenReturn(List.of(request));
+        Mockito.when(requestRepository.findByRequestingUserIdNot(userId, PageRequest.of(1, 2, Sort.by("created", "id").descending())))
+                .thenReturn(new SliceImpl<>(List.of(request), PageRequest.of(1, 2), true));
 
-        Mockito.when(itemRepository.findByRequestId(request.getId()))
+        Mockito.when(itemRepository.findByRequestIdIn(List.of(request.getId())))
                 .thenReturn(List.of(item));
 
-        List<RequestDtoOutput> requestDtoSaved = requestService.getAll(from, size, userId);
+        Slice<RequestDtoOutput> requestDtoSaved = requestService.getAll(from, size, userId, null);
 
-        assertNotNull(requestDtoSaved.get(0));
-        assertEquals(requestDtoSaved.get(0).getItems().size(), 1);
+        assertNotNull(requestDtoSaved.getContent().get(0));
+        assertEquals(requestDtoSaved.getContent().get(0).getItems().size(), 1);
+        assertTrue(requestDtoSaved.hasNext());
     }
 
     @Test
-    void get_shouldReturnRequestDtoOutput() {
+    void getAll_shouldSeekAfterCursor_whenCursorIsGiven() {
         Integer userId = user.getId();
-        Integer requestId = request.getId();
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now().minusDays(1), 7);
 
-        Mockito.when(userRepository.existsById(userId))
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
-        Mockito.when(requestRepository.existsById(requestId))
+        Mockito.when(requestRepository.findByRequestingUserIdNotSeek(userId, cursor.getTimestamp(), cursor.getId(), PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        Slice<RequestDtoOutput> requestDtoSaved = requestService.getAll(0, 10, userId, cursor.encode());
+
+        assertFalse(requestDtoSaved.hasContent());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getByUser_shouldNotQueryItems_whenUserHasNoRequests() {
+        Integer userId = user.getId();
+
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(true);
+
+        Mockito.when(requestRepository.findByRequestingUserIdOrderByCreatedDesc(userId))
+                .thenReturn(List.of());
+
+        assertTrue(requestService.getByUser(userId).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void get_shouldReturnRequestDtoOutput() {
+        Integer userId = user.getId();
+        Integer requestId = request.getId();
+
+        Mockito.when(userIdentityCache.exists(userId))
                 .thenReturn(true);
 
         Mockito.when(requestRepository.findById(requestId))
@@ -156,4 +205,20 @@ public class RequestServiceTest {
         assertNotNull(requestDtoSaved);
         assertEquals(requestDtoSaved.getItems().size(), 1);
     }
+
+    @Test
+    void get_throwsObjectNotFoundException_whenRequestNotFound() {
+        Integer userId = user.getId();
+        Integer requestId = request.getId();
+
+        Mockito.when(userIdentityCache.exists(userId))
+                .thenReturn(true);
+
+        Mockito.when(requestRepository.findById(requestId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> requestService.get(requestId, userId));
+
+        verifyNoInteractions(itemRepository);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdentityCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityCache userIdentityCache;
+
+    @BeforeEach
+    void setup() {
+        userIdentityCache = new UserIdentityCache(userRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void exists_shouldQueryRepositoryOnce_whenUserExists() {
+        Mockito.when(userRepository.existsById(1))
+                .thenReturn(true);
+
+        assertTrue(userIdentityCache.exists(1));
+        assertTrue(userIdentityCache.exists(1));
+
+        verify(userRepository, times(1)).existsById(1);
+    }
+
+    @Test
+    void exists_shouldNotRememberMissingUser() {
+        Mockito.when(userRepository.existsById(1))
+                .thenReturn(false, true);
+
+        assertFalse(userIdentityCache.exists(1));
+        assertTrue(userIdentityCache.exists(1));
+
+        verify(userRepository, times(2)).existsById(1);
+    }
+
+    @Test
+    void evict_shouldForgetUser() {
+        Mockito.when(userRepository.existsById(1))
+                .thenReturn(true, false);
+
+        assertTrue(userIdentityCache.exists(1));
+
+        userIdentityCache.evict(1);
+
+        assertFalse(userIdentityCache.exists(1));
+        verify(userRepository, times(2)).existsById(1);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.config.HibernateMetricsConfig;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(HibernateMetricsConfig.class)
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MeterBinder hibernateMetrics;
+
+    private User user1;
+
+    private User user2;
+
+    @BeforeEach
+    void setup() {
+        user1 = userRepository.save(new User(null, "Jason", "jason@ya.ru"));
+        user2 = userRepository.save(new User(null, "Shaun", "shaun@ya.ru"));
+    }
+
+    @AfterEach
+    void afterEach() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void existsByEmailAndIdNot() {
+        assertAll(
+                () -> assertTrue(userRepository.existsByEmailAndIdNot(user2.getEmail(), user1.getId())),
+                () -> assertFalse(userRepository.existsByEmailAndIdNot(user1.getEmail(), user1.getId())),
+                () -> assertFalse(userRepository.existsByEmailAndIdNot("freddy@ya.ru", user1.getId()))
+        );
+    }
+
+    @Test
+    void saveAndFlush_throwsDataIntegrityViolationException_whenEmailIsTaken() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(new User(null, "Freddy", user1.getEmail())));
+    }
+
+    @Test
+    void findById_shouldReadUserFromSecondLevelCache_whenLoadedBefore() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        userRepository.findById(user1.getId());
+
+        statistics.clear();
+        Optional<User> userFound = userRepository.findById(user1.getId());
+
+        assertTrue(userFound.isPresent());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void hibernateMetrics_shouldPublishSecondLevelCacheHits() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        hibernateMetrics.bindTo(meterRegistry);
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        userRepository.findById(user1.getId());
+        userRepository.findById(user1.getId());
+
+        FunctionCounter cacheHits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "users", "result", "hit")
+                .functionCounter();
+
+        assertNotNull(cacheHits);
+        assertTrue(cacheHits.count() > 0);
+    }
+}
@@ -8,16 +8,25 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.exceptions.DtoIntegrityException;
 import ru.practicum.shareit.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.exceptions.UserEmailAlreadyExistsException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemDtoCache;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
@@ -29,6 +38,7 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atMostOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +51,24 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache entityCache;
+
+    @Mock
+    private ItemDtoCache itemDtoCache;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
     @Spy
     private UserMapperImpl userMapper;
 
@@ -127,6 +155,25 @@ public class UserServiceTest {
         verify(userRepository).save(any());
     }
 
+    @Test
+    void update_shouldEvictItemDtoCache() {
+        UserDto userDtoToUpdateTo = new UserDto(null, "Freddy", null);
+        Integer userId = user1.getId();
+
+        Mockito.when(userRepository.existsById(userId))
+                .thenReturn(true);
+
+        Mockito.when(userRepository.findById(userId))
+                .thenReturn(Optional.of(user1));
+
+        Mockito.when(userRepository.save(any()))
+                .thenReturn(user1);
+
+        userService.update(userId, userDtoToUpdateTo);
+
+        verify(itemDtoCache).evictAll();
+    }
+
     @Test
     void update_shouldThrowObjectNotFoundException_whenUserNotFound() {
         UserDto userDtoToUpdateTo = userMapper.toUserDto(user2);
@@ -154,8 +201,31 @@ public class UserServiceTest {
         Mockito.when(userRepository.findById(userId))
                 .thenReturn(Optional.of(user1));
 
-        Mockito.when(userRepository.findAll())
-                .thenReturn(List.of(user1, user2));
+        Mockito.when(userRepository.existsByEmailAndIdNot(user2.getEmail(), userId))
+                .thenReturn(true);
+
+        assertThrows(UserEmailAlreadyExistsException.class, () -> userService.update(userId, userDtoToUpdateTo));
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void update_shouldThrowUserEmailAlreadyExistsException_whenUniqueConstraintIsViolated() {
+        UserDto userDtoToUpdateTo = userMapper.toUserDto(user2);
+
+        Integer userId = user1.getId();
+
+        Mockito.when(userRepository.existsById(userId))
+                .thenReturn(true);
+
+        Mockito.when(userRepository.findById(userId))
+                .thenReturn(Optional.of(user1));
+
+        Mockito.when(userRepository.existsByEmailAndIdNot(user2.getEmail(), userId))
+                .thenReturn(false);
+
+        Mockito.when(userRepository.save(any()))
+                .thenThrow(new DataIntegrityViolationException("UQ_USER_EMAIL"));
 
         assertThrows(UserEmailAlreadyExistsException.class, () -> userService.update(userId, userDtoToUpdateTo));
     }
@@ -184,9 +254,37 @@ public class UserServiceTest {
         Mockito.when(userRepository.existsById(userId))
                 .thenReturn(true);
 
+        Mockito.when(entityManagerFactory.getCache())
+                .thenReturn(entityCache);
+
         userService.delete(userId);
 
         verify(userRepository).deleteById(userId);
+        verify(userIdentityCache).evict(userId);
+        verify(entityCache).evict(Item.class);
+        verify(entityCache).evict(Request.class);
+        verify(itemDtoCache).evictAll();
+    }
+
+    @Test
+    void delete_shouldRemoveOwnersItemsFromSearchIndex() {
+        Integer userId = user1.getId();
+        Item item1 = new Item(1, "Balalaika", "Brand new balalaika", true);
+        Item item2 = new Item(2, "Matryoshka", "A set of 5 dolls", true);
+
+        Mockito.when(userRepository.existsById(userId))
+                .thenReturn(true);
+
+        Mockito.when(itemRepository.findByOwnerIdOrderByIdAsc(userId))
+                .thenReturn(List.of(item1, item2));
+
+        Mockito.when(entityManagerFactory.getCache())
+                .thenReturn(entityCache);
+
+        userService.delete(userId);
+
+        verify(itemSearchEngine).remove(item1.getId());
+        verify(itemSearchEngine).remove(item2.getId());
     }
 
     @Test